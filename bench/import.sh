@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Бенчмарк масового імпорту: генерує CSV на ROWS відміток і імпортує його командою застосунку.
+# Швидкість (рядків/с) друкується в лог рядком "Імпорт #N: ... рядків/с".
+#
+#   ROWS=10000000 ./bench/import.sh
+#
+# Потрібні DB_URL (бажано з rewriteBatchedStatements=true), DB_USER, DB_PASSWORD.
+set -euo pipefail
+
+ROWS="${ROWS:-10000000}"
+STUDENTS="${STUDENTS:-30}"
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$(ls "$TARGET"/gradebook-*.jar | grep -v original | head -1)"
+CSV="${CSV:-$TARGET/bench-import-$ROWS.csv}"
+
+if [ ! -f "$CSV" ]; then
+  echo "generating $ROWS rows into $CSV"
+  awk -v rows="$ROWS" -v students="$STUDENTS" 'BEGIN {
+    print "lesson_date,subject,topic,student_name,present,grade,updated_at"
+    split("Математика,Фізика,Історія,Біологія,Хімія", subj, ",")
+    srand(42)
+    for (i = 0; i < rows; i++) {
+      lesson = int(i / students)
+      day = lesson % 3650
+      y = 2015 + int(day / 365); d = day % 365
+      m = 1 + int(d / 31); dd = 1 + d % 28
+      date = sprintf("%04d-%02d-%02d", y, (m > 12 ? 12 : m), dd)
+      present = (rand() < 0.9) ? "true" : "false"
+      grade = (present == "true") ? 1 + int(rand() * 12) : ""
+      printf "%s,%s,Тема %d,Студент %d,%s,%s,%sT10:00:00\n", date, subj[1 + lesson % 5], lesson, i % students, present, grade, date
+    }
+  }' > "$CSV"
+fi
+
+start=$(date +%s)
+java -jar "$JAR" --spring.main.web-application-type=none --gradebook.import.file="$CSV"
+elapsed=$(( $(date +%s) - start ))
+echo "imported $ROWS rows in ${elapsed}s (~$(( ROWS / (elapsed > 0 ? elapsed : 1) )) rows/s incl. startup)"
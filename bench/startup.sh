@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Бенчмарк старту: час від запуску JVM до першої успішно обслуженої відповіді.
+#
+#   ./bench/startup.sh default     # звичайний fat jar
+#   ./bench/startup.sh faststart   # AOT + CDS (після ./mvnw -Pfaststart package)
+#
+# Потрібні змінні DB_URL, DB_USER, DB_PASSWORD, як і для звичайного запуску.
+set -euo pipefail
+
+MODE="${1:-default}"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/lessons?size=1"
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$(ls "$TARGET"/gradebook-*.jar | grep -v original | head -1)"
+
+case "$MODE" in
+  default)
+    CMD=(java -jar "$JAR" --server.port="$PORT")
+    ;;
+  faststart)
+    CMD=(java -XX:SharedArchiveFile="$TARGET/faststart/application.jsa"
+         -Dspring.aot.enabled=true -Dspring.profiles.active=faststart
+         -jar "$TARGET/faststart/$(basename "$JAR")" --server.port="$PORT")
+    ;;
+  *)
+    echo "usage: $0 [default|faststart]" >&2
+    exit 1
+    ;;
+esac
+
+total=0
+for i in $(seq 1 "$RUNS"); do
+  start=$(date +%s%N)
+  "${CMD[@]}" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    kill -0 "$pid" 2> /dev/null || { echo "застосунок завершився до першої відповіді" >&2; exit 1; }
+    sleep 0.02
+  done
+  ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"; wait "$pid" 2> /dev/null || true
+  echo "run $i: ${ms} ms"
+  total=$((total + ms))
+done
+echo "$MODE: avg time to first request $((total / RUNS)) ms over $RUNS runs"
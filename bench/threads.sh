@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Бенчмарк моделі потоків: платформні потоки Tomcat проти віртуальних (профіль vthreads)
+# при високій конкурентності та малому пулі з'єднань.
+#
+#   ./bench/threads.sh platform
+#   ./bench/threads.sh virtual
+#
+# Потрібні ab (apache2-utils), змінні DB_URL, DB_USER, DB_PASSWORD і хоча б один урок у БД.
+# CONCURRENCY, REQUESTS, POOL, LESSON_ID можна перевизначити.
+set -euo pipefail
+
+MODE="${1:-platform}"
+PORT="${PORT:-8080}"
+POOL="${POOL:-10}"
+CONCURRENCY="${CONCURRENCY:-400}"
+REQUESTS="${REQUESTS:-40000}"
+LESSON_ID="${LESSON_ID:-1}"
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$(ls "$TARGET"/gradebook-*.jar | grep -v original | head -1)"
+
+case "$MODE" in
+  platform) PROFILE=default ;;
+  virtual)  PROFILE=vthreads ;;
+  *)
+    echo "usage: $0 [platform|virtual]" >&2
+    exit 1
+    ;;
+esac
+
+# bulkhead-и вимкнено, щоб міряти саме модель потоків, а не відмови 503
+java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$PROFILE" \
+     --spring.datasource.hikari.maximum-pool-size="$POOL" \
+     --gradebook.bulkhead.enabled=false > /dev/null 2>&1 &
+pid=$!
+trap 'kill "$pid" 2> /dev/null; wait "$pid" 2> /dev/null || true' EXIT
+
+until curl -sf -o /dev/null "http://localhost:${PORT}/api/lessons/${LESSON_ID}"; do
+  kill -0 "$pid" 2> /dev/null || { echo "застосунок не стартував" >&2; exit 1; }
+  sleep 0.2
+done
+
+run() {
+  local name="$1" url="$2"
+  # прогрів JIT, результати відкидаємо
+  ab -q -k -n $((REQUESTS / 10)) -c "$CONCURRENCY" "$url" > /dev/null 2>&1 || true
+  echo "== $MODE, pool=$POOL, c=$CONCURRENCY: $name"
+  ab -q -k -n "$REQUESTS" -c "$CONCURRENCY" "$url" \
+    | grep -E '^(Requests per second|Failed requests|Non-2xx responses)|^ +(50|95|99)%'
+}
+
+run "GET /api/lessons/{id}" "http://localhost:${PORT}/api/lessons/${LESSON_ID}"
+run "GET /lesson/{id}"      "http://localhost:${PORT}/lesson/${LESSON_ID}"
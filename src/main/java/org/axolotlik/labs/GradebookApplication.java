@@ -1,13 +1,19 @@
 package org.axolotlik.labs;
 
+import org.axolotlik.labs.config.ImportConfig.ImportCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class GradebookApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(GradebookApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(GradebookApplication.class, args);
+        // режим команди (імпорт CSV): після неї застосунок закривається з її кодом виходу
+        if (!context.getBeansOfType(ImportCommand.class).isEmpty()) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
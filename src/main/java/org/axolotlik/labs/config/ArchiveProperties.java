@@ -0,0 +1,23 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Налаштування перенесення старих уроків в архівні таблиці (gradebook.archive.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+    /** Уроки, старші за сьогодні мінус цей період, переїжджають в архів. */
+    private Period olderThan = Period.ofYears(1);
+    /** Уроків в одній транзакції (разом з усіма їхніми відмітками). */
+    private int batchSize = 50;
+    private Duration pause = Duration.ofMillis(200);
+    private int maxBatchesPerRun = 100;
+}
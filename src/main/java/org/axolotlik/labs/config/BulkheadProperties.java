@@ -0,0 +1,44 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Налаштування bulkhead-ів (gradebook.bulkhead.*): окремий ліміт для кожної групи ендпоїнтів.
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /** 503 (перевантаження) або 429 (занадто багато запитів). */
+    private int rejectStatus = 503;
+
+    private Group read = new Group(64, 8, 256);
+    private Group write = new Group(32, 4, 64);
+    private Group heavy = new Group(4, 1, 8);
+
+    @Data
+    public static class Group {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        /** Ціль латентності для адаптивного ліміту; не задано — ліміт фіксований. */
+        private Duration latencyTarget;
+        /** Скільки запит може почекати на дозвіл; за замовчуванням — відмова одразу. */
+        private Duration maxWait = Duration.ZERO;
+        private Duration retryAfter = Duration.ofSeconds(1);
+
+        public Group() {
+        }
+
+        Group(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
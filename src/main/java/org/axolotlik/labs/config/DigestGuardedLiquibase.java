@@ -0,0 +1,83 @@
+package org.axolotlik.labs.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+/**
+ * SpringLiquibase зі швидким шляхом: рахує SHA-256 усіх файлів changelog-у і, якщо він збігається
+ * зі збереженим у schema_digest після останнього успішного запуску, не парсить changelog взагалі.
+ */
+@Slf4j
+public class DigestGuardedLiquibase extends SpringLiquibase {
+
+    private String changelogPattern = "classpath*:db/changelog/**/*.yaml";
+
+    public void setChangelogPattern(String changelogPattern) {
+        this.changelogPattern = changelogPattern;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        String digest = computeDigest();
+        if (digest.equals(storedDigest())) {
+            log.info("Liquibase: changelog {} не змінився (digest {}), оновлення пропущено", getChangeLog(), digest);
+            return;
+        }
+        super.afterPropertiesSet();
+        storeDigest(digest);
+    }
+
+    private String computeDigest() throws LiquibaseException {
+        try {
+            var resolver = new PathMatchingResourcePatternResolver(getResourceLoader());
+            Resource[] resources = resolver.getResources(changelogPattern);
+            Arrays.sort(resources, Comparator.comparing(Resource::getDescription));
+
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (Resource r : resources) {
+                md.update(r.getFilename() != null ? r.getFilename().getBytes() : new byte[0]);
+                try (InputStream in = r.getInputStream()) {
+                    md.update(in.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new LiquibaseException("Не вдалося порахувати digest changelog-у", e);
+        }
+    }
+
+    private String storedDigest() {
+        try {
+            return new JdbcTemplate(getDataSource()).query(
+                    "select digest from schema_digest where changelog = ?",
+                    rs -> rs.next() ? rs.getString(1) : null,
+                    getChangeLog());
+        } catch (DataAccessException e) {
+            // таблиці ще немає (перший запуск) — йдемо повним шляхом
+            return null;
+        }
+    }
+
+    // один атомарний upsert: поди, що стартують одночасно, просто перезаписують той самий digest
+    private void storeDigest(String digest) {
+        new JdbcTemplate(getDataSource()).update("""
+                insert into schema_digest (changelog, digest, applied_at) values (?, ?, ?)
+                on duplicate key update digest = values(digest), applied_at = values(applied_at)
+                """, getChangeLog(), digest, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,35 @@
+package org.axolotlik.labs.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Профіль faststart: біни springdoc створюються ліниво — при першому зверненні до /v3/api-docs
+ * чи swagger-ui, а не під час старту застосунку.
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition bd = beanFactory.getBeanDefinition(name);
+                String className = bd.getBeanClassName();
+                String factoryBean = bd.getFactoryBeanName();
+                if (className == null && factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)) {
+                    className = beanFactory.getBeanDefinition(factoryBean).getBeanClassName();
+                }
+                if (className != null && className.startsWith(SPRINGDOC_PACKAGE)) {
+                    bd.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
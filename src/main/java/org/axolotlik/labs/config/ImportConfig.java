@@ -0,0 +1,82 @@
+package org.axolotlik.labs.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.model.ImportJob;
+import org.axolotlik.labs.model.ImportStatus;
+import org.axolotlik.labs.service.GradebookImportService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+
+    /**
+     * Команда імпорту:
+     * {@code java -jar gradebook.jar --spring.main.web-application-type=none --gradebook.import.file=marks.csv}
+     * (для продовження додати {@code --gradebook.import.resume-job=<id>}).
+     * Відмітки пишуться в школу gradebook.import.school, а без неї — у школу за замовчуванням.
+     * Код виходу (0 — імпорт завершено) команда віддає як {@link ExitCodeGenerator}, а завершує процес
+     * {@code GradebookApplication.main}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gradebook.import.file")
+    public ImportCommand gradebookImportCommand(GradebookImportService importService, ImportProperties props,
+                                                TenancyProperties tenancy) {
+        Long school = (props.getSchool() != null) ? props.getSchool() : tenancy.getDefaultSchool();
+        return new ImportCommand(importService, props, school);
+    }
+
+    public static class ImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+        private final GradebookImportService importService;
+        private final ImportProperties props;
+        private final Long school;
+        private volatile int exitCode = 1;
+
+        ImportCommand(GradebookImportService importService, ImportProperties props, Long school) {
+            this.importService = importService;
+            this.props = props;
+            this.school = school;
+        }
+
+        @Override
+        public void run(ApplicationArguments args) {
+            TenantContext.runAs(school, null, this::runImport);
+        }
+
+        @Override
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        private void runImport() {
+            Path file = Path.of(props.getFile());
+            Long jobId = (props.getResumeJob() != null)
+                    ? props.getResumeJob()
+                    : importService.createJob(file.getFileName().toString()).getId();
+
+            LocalDateTime start = LocalDateTime.now();
+            ImportJob job = importService.runImport(jobId, file);
+            double seconds = Math.max(1, Duration.between(start, LocalDateTime.now()).toMillis()) / 1000.0;
+            log.info("Імпорт #{}: {} рядків за {} с ({} рядків/с)", jobId, job.getRowsImported(),
+                    String.format("%.1f", seconds), Math.round(job.getRowsImported() / seconds));
+            if (job.getStatus() != ImportStatus.COMPLETED) {
+                log.error("Імпорт #{} не завершено: {}. Продовжити: --gradebook.import.resume-job={}",
+                        jobId, job.getLastError(), jobId);
+            }
+            exitCode = (job.getStatus() == ImportStatus.COMPLETED) ? 0 : 1;
+        }
+    }
+}
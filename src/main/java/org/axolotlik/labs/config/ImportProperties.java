@@ -0,0 +1,25 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Налаштування масового імпорту з CSV (gradebook.import.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.import")
+public class ImportProperties {
+
+    /** Рядків у чанку; один чанк — одна транзакція і один JDBC batch. */
+    private int chunkSize = 5000;
+    private int workers = 4;
+    /** Після стількох відхилених рядків імпорт зупиняється як FAILED. */
+    private long maxErrors = 10_000;
+
+    /** Режим команди: шлях до CSV; застосунок імпортує файл і завершується. */
+    private String file;
+    /** Режим команди: продовжити перерваний імпорт з цим id. */
+    private Long resumeJob;
+    /** Режим команди: школа, у яку імпортуються відмітки. */
+    private Long school;
+}
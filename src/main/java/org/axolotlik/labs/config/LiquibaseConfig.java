@@ -0,0 +1,38 @@
+package org.axolotlik.labs.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Замінює автоконфігурований SpringLiquibase на {@link DigestGuardedLiquibase},
+ * коли увімкнено gradebook.liquibase.fast-path (профіль faststart).
+ */
+@Configuration
+@ConditionalOnProperty(name = "gradebook.liquibase.fast-path", havingValue = "true")
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class LiquibaseConfig {
+
+    // з шардингом міграції запускає ShardingConfig — теж через DigestGuardedLiquibase, на кожному шарді
+    @Bean
+    @ConditionalOnProperty(name = "gradebook.tenancy.sharding-enabled", havingValue = "false", matchIfMissing = true)
+    public SpringLiquibase liquibase(DataSource dataSource, LiquibaseProperties properties) {
+        DigestGuardedLiquibase liquibase = configure(new DigestGuardedLiquibase(), properties);
+        liquibase.setDataSource(dataSource);
+        return liquibase;
+    }
+
+    static <T extends SpringLiquibase> T configure(T liquibase, LiquibaseProperties properties) {
+        liquibase.setChangeLog(properties.getChangeLog());
+        liquibase.setContexts(properties.getContexts() != null ? String.join(",", properties.getContexts()) : null);
+        liquibase.setLabelFilter(properties.getLabelFilter() != null ? String.join(",", properties.getLabelFilter()) : null);
+        liquibase.setDropFirst(properties.isDropFirst());
+        liquibase.setShouldRun(properties.isEnabled());
+        return liquibase;
+    }
+}
@@ -0,0 +1,29 @@
+package org.axolotlik.labs.config;
+
+import org.axolotlik.labs.service.NotificationSink;
+import org.axolotlik.labs.service.impl.FileNotificationSink;
+import org.axolotlik.labs.service.impl.LogNotificationSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@EnableConfigurationProperties(NotificationProperties.class)
+public class NotificationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gradebook.notifications.sink", havingValue = "log", matchIfMissing = true)
+    public NotificationSink logNotificationSink() {
+        return new LogNotificationSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "gradebook.notifications.sink", havingValue = "file")
+    public NotificationSink fileNotificationSink(NotificationProperties props) throws IOException {
+        return new FileNotificationSink(Path.of(props.getFile()));
+    }
+}
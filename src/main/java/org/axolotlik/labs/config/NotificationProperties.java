@@ -0,0 +1,37 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Налаштування конвеєра сповіщень (gradebook.notifications.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.notifications")
+public class NotificationProperties {
+
+    /** Місткість на весь конвеєр; ділиться порівну між партиціями воркерів. */
+    private int queueCapacity = 10_000;
+    /** Воркерів стільки ж, скільки партицій черги; адресат завжди потрапляє в ту саму партицію. */
+    private int workers = 2;
+    /** Максимум повідомлень, що забирає воркер за один прохід. */
+    private int batchSize = 500;
+    /** Скільки воркер чекає після першого повідомлення, щоб зібрати дайджест. */
+    private Duration linger = Duration.ofMillis(200);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /** log або file. */
+    private String sink = "log";
+    private String file = "notifications.log";
+
+    public enum OverflowPolicy {
+        /** Відкинути нове повідомлення. */
+        DROP_NEWEST,
+        /** Витіснити найстаріше повідомлення з черги. */
+        DROP_OLDEST,
+        /** Доставити синхронно в потоці, що викликав notify. */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,29 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Налаштування outbox (gradebook.outbox.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.outbox")
+public class OutboxProperties {
+
+    private boolean relayEnabled = true;
+    private int batchSize = 200;
+    /** Скільки зберігати доставлені події перед видаленням. */
+    private Duration retention = Duration.ofHours(1);
+    private int compactionChunk = 1000;
+    /** Скільки под тримає оренду relay без продовження; після цього її може перехопити інший под. */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+    /**
+     * Скільки чекати на пропущений id перед подією: id видається при вставці, а не при коміті,
+     * тож менший id може ще бути в незакоміченій транзакції. Після тайм-ауту пропуск вважається відкотом.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(10);
+    /** Після стількох невдалих спроб подія паркується (dead-letter) і більше не блокує чергу. */
+    private int maxAttempts = 10;
+}
@@ -0,0 +1,23 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Налаштування фонового purge м'яко видалених уроків і відміток (gradebook.purge.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.purge")
+public class PurgeProperties {
+
+    private boolean enabled = true;
+    /** Скільки видалені рядки ще лежать у БД, перш ніж їх можна прибрати. */
+    private Duration grace = Duration.ofMinutes(10);
+    /** Рядків в одній транзакції DELETE. */
+    private int chunkSize = 500;
+    /** Пауза між чанками — обмежує темп, щоб purge не заважав записам вчителів. */
+    private Duration pause = Duration.ofMillis(100);
+    private int maxChunksPerRun = 200;
+}
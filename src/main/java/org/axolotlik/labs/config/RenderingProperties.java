@@ -0,0 +1,17 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Налаштування рендеру великих сторінок (gradebook.rendering.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.rendering")
+public class RenderingProperties {
+
+    /** Журнал і сторінка уроку рендеряться частинами з курсора БД (chunked), а не цілком у пам'яті. */
+    private boolean streaming = true;
+    /** Скільки символів HTML рендериться між flush-ами. */
+    private int chunkChars = 16 * 1024;
+}
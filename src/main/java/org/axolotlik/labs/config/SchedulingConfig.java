@@ -0,0 +1,11 @@
+package org.axolotlik.labs.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({OutboxProperties.class, PurgeProperties.class, ArchiveProperties.class})
+public class SchedulingConfig {
+}
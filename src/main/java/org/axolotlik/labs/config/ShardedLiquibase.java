@@ -0,0 +1,37 @@
+package org.axolotlik.labs.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Застосовує той самий changelog до кожного шарду по черзі; старт зупиняється на першому шарді з помилкою.
+ * Налаштування кожного запуску (changelog, контексти, fast-path) дає фабрика.
+ */
+@Slf4j
+public class ShardedLiquibase extends SpringLiquibase {
+
+    private final Map<String, DataSource> shards;
+    private final Supplier<SpringLiquibase> factory;
+
+    public ShardedLiquibase(Map<String, DataSource> shards, Supplier<SpringLiquibase> factory) {
+        this.shards = shards;
+        this.factory = factory;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        if (!shouldRun) return;
+        for (Map.Entry<String, DataSource> shard : shards.entrySet()) {
+            log.info("Liquibase: міграції шарду {}", shard.getKey());
+            SpringLiquibase liquibase = factory.get();
+            liquibase.setDataSource(shard.getValue());
+            liquibase.setResourceLoader(getResourceLoader());
+            liquibase.afterPropertiesSet();
+        }
+    }
+}
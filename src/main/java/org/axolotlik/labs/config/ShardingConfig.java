@@ -0,0 +1,62 @@
+package org.axolotlik.labs.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import org.axolotlik.labs.tenant.ShardRoutingDataSource;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Шардинг за школами: кожен шард — окрема база з власним пулом, усі репозиторії ходять через
+ * {@link ShardRoutingDataSource}, а Liquibase проганяє міграції на кожному шарді.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gradebook.tenancy.sharding-enabled", havingValue = "true")
+@EnableConfigurationProperties(LiquibaseProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(TenancyProperties props, Shards shards) {
+        Map<String, DataSource> targets = new LinkedHashMap<>();
+        props.getShards().forEach((name, shard) -> targets.put(name, pool(name, shard)));
+        return new ShardRoutingDataSource(shards, targets);
+    }
+
+    @Bean
+    public SpringLiquibase liquibase(ShardRoutingDataSource dataSource, LiquibaseProperties properties,
+                                     @Value("${gradebook.liquibase.fast-path:false}") boolean fastPath) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        dataSource.getResolvedDataSources().forEach((name, ds) -> shards.put((String) name, ds));
+
+        ShardedLiquibase liquibase = new ShardedLiquibase(shards, () -> LiquibaseConfig.configure(
+                fastPath ? new DigestGuardedLiquibase() : new SpringLiquibase(), properties));
+        liquibase.setDataSource(dataSource);
+        liquibase.setShouldRun(properties.isEnabled());
+        return liquibase;
+    }
+
+    private static HikariDataSource pool(String name, TenancyProperties.Shard shard) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .driverClassName(shard.getDriverClassName())
+                .build();
+        ds.setPoolName("shard-" + name);
+        ds.setMaximumPoolSize(shard.getMaximumPoolSize());
+        return ds;
+    }
+}
@@ -0,0 +1,54 @@
+package org.axolotlik.labs.config;
+
+import org.axolotlik.labs.tenant.SchoolTenantResolver;
+import org.axolotlik.labs.tenant.Shards;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.axolotlik.labs.web.TenantFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    @Bean
+    public Shards shards(TenancyProperties props) {
+        if (!props.isShardingEnabled()) {
+            return new Shards(props.getDefaultShard(), List.of(props.getDefaultShard()), Map.of());
+        }
+        return new Shards(props.getDefaultShard(), new ArrayList<>(props.getShards().keySet()), props.getSchools());
+    }
+
+    @Bean
+    public SchoolTenantResolver schoolTenantResolver() {
+        return new SchoolTenantResolver();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantResolverCustomizer(SchoolTenantResolver resolver) {
+        return properties -> properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties props) {
+        var registration = new FilterRegistrationBean<>(new TenantFilter(props.getHeader(), props.getDefaultSchool()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // applicationTaskExecutor (імпорт, async MVC) переносить школу/шард у свої потоки
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return TenantContext::wrap;
+    }
+}
@@ -0,0 +1,36 @@
+package org.axolotlik.labs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Школи (тенанти) і шарди (gradebook.tenancy.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "gradebook.tenancy")
+public class TenancyProperties {
+
+    /** Заголовок запиту з id школи. */
+    private String header = "X-School-Id";
+    /** Школа для запитів без заголовка і для консольного імпорту. */
+    private Long defaultSchool = 1L;
+
+    /** Без шардингу всі школи живуть у spring.datasource. */
+    private boolean shardingEnabled = false;
+    private String defaultShard = "default";
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+    /** id школи → назва шарду; школи поза мапою йдуть у default-shard. */
+    private Map<Long, String> schools = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,74 @@
+package org.axolotlik.labs.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axolotlik.labs.web.BulkheadInterceptor;
+import org.axolotlik.labs.web.StreamingPages;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.thymeleaf.spring6.ISpringTemplateEngine;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties({BulkheadProperties.class, RenderingProperties.class})
+public class WebConfig implements WebMvcConfigurer {
+
+    private final BulkheadProperties bulkheadProperties;
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry) {
+        this.bulkheadProperties = bulkheadProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (bulkheadProperties.isEnabled()) {
+            registry.addInterceptor(new BulkheadInterceptor(bulkheadProperties, meterRegistry))
+                    .excludePathPatterns("/actuator/**", "/css/**", "/js/**");
+        }
+    }
+
+    /** Ім'я з хешем вмісту, яке видає VersionResourceResolver: style-&lt;md5&gt;.css. */
+    private static final String FINGERPRINTED = "{file:.+-[0-9a-f]{32}\\.[a-z]+}";
+
+    /**
+     * CSS/JS з хешем вмісту в імені (style-&lt;md5&gt;.css): посилання @{/css/style.css} у шаблонах
+     * переписує ResourceUrlEncodingFilter, тому такий файл можна кешувати назавжди — нова версія матиме нову URL.
+     * Ті самі файли за простою URL (/css/style.css) теж віддаються, але з no-cache: вміст під нею змінюється
+     * з кожним релізом, тож браузер має перевіряти його через ETag/Last-Modified.
+     * Стиснуті при збірці .br/.gz віддаються замість оригіналу, якщо клієнт їх приймає.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : new String[]{"css", "js"}) {
+            addAssetHandler(registry, "/" + dir + "/" + FINGERPRINTED, dir,
+                    CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+            addAssetHandler(registry, "/" + dir + "/**", dir, CacheControl.noCache());
+        }
+    }
+
+    private static void addAssetHandler(ResourceHandlerRegistry registry, String pattern, String dir,
+                                        CacheControl cacheControl) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations("classpath:/static/" + dir + "/")
+                .setCacheControl(cacheControl)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Bean
+    public StreamingPages streamingPages(ISpringTemplateEngine templateEngine, ApplicationContext applicationContext,
+                                         RenderingProperties renderingProperties) {
+        return new StreamingPages(templateEngine, applicationContext, renderingProperties);
+    }
+}
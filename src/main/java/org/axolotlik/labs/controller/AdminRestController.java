@@ -0,0 +1,47 @@
+package org.axolotlik.labs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.axolotlik.labs.dto.admin.SchoolStatsDto;
+import org.axolotlik.labs.model.SchoolStats;
+import org.axolotlik.labs.service.ShardAdminService;
+import org.axolotlik.labs.web.Bulkhead;
+import org.axolotlik.labs.web.EndpointGroup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminRestController {
+
+    private final ShardAdminService service;
+
+    public AdminRestController(ShardAdminService service) {
+        this.service = service;
+    }
+
+    // ===== CROSS-SHARD =====
+    @Operation(
+            summary = "Школи на кожному шарді з обсягом даних",
+            description = "Шарди опитуються паралельно; заголовок школи тут не враховується."
+    )
+    @ApiResponse(responseCode = "200", description = "OK")
+    @Bulkhead(EndpointGroup.HEAVY)
+    @GetMapping("/shards")
+    public ResponseEntity<Map<String, List<SchoolStatsDto>>> shards() {
+        Map<String, List<SchoolStatsDto>> result = new LinkedHashMap<>();
+        service.schoolStats().forEach((shard, schools) -> result.put(shard, schools.stream().map(this::toDto).toList()));
+        return ResponseEntity.ok(result);
+    }
+
+    // ===== MAPPER =====
+    private SchoolStatsDto toDto(SchoolStats s) {
+        return new SchoolStatsDto(s.schoolId(), s.lessons(), s.marks());
+    }
+}
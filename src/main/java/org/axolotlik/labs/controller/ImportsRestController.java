@@ -0,0 +1,132 @@
+package org.axolotlik.labs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.axolotlik.labs.dto.imports.ImportErrorDto;
+import org.axolotlik.labs.dto.imports.ImportJobDto;
+import org.axolotlik.labs.model.ImportJob;
+import org.axolotlik.labs.model.ImportStatus;
+import org.axolotlik.labs.service.GradebookImportService;
+import org.axolotlik.labs.web.Bulkhead;
+import org.axolotlik.labs.web.EndpointGroup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportsRestController {
+
+    private final GradebookImportService service;
+
+    public ImportsRestController(GradebookImportService service) {
+        this.service = service;
+    }
+
+    // ===== START =====
+    @Operation(
+            summary = "Запустити імпорт журналу з CSV",
+            description = "Колонки: lesson_date,subject,topic,student_name,present,grade,updated_at. "
+                    + "Імпорт виконується у фоні; прогрес — GET /api/imports/{id}."
+    )
+    @ApiResponse(responseCode = "202", description = "Імпорт запущено",
+            content = @Content(schema = @Schema(implementation = ImportJobDto.class)))
+    @Bulkhead(EndpointGroup.HEAVY)
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> start(@RequestParam("file") MultipartFile file) throws IOException {
+        Path tmp = spool(file);
+        ImportJob job = service.createJob(file.getOriginalFilename());
+        service.submitImport(job.getId(), tmp);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(job));
+    }
+
+    // ===== RESUME =====
+    @Operation(summary = "Продовжити перерваний імпорт (той самий файл ще раз)",
+            description = "Уже закомічені чанки пропускаються, тож відмітки не дублюються.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Імпорт продовжено",
+                    content = @Content(schema = @Schema(implementation = ImportJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Не знайдено",
+                    content = @Content(schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "409", description = "Імпорт ще виконується або вже завершений",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @Bulkhead(EndpointGroup.HEAVY)
+    @PostMapping(path = "/{id}/resume", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> resume(@PathVariable Long id, @RequestParam("file") MultipartFile file) throws IOException {
+        var jobOpt = service.getJob(id);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (service.isRunning(id) || jobOpt.get().getStatus() == ImportStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        service.submitImport(id, spool(file));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toDto(jobOpt.get()));
+    }
+
+    // ===== STATUS =====
+    @Operation(summary = "Стан і прогрес імпорту")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Знайдено",
+                    content = @Content(schema = @Schema(implementation = ImportJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Не знайдено",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> one(@PathVariable Long id) {
+        return service.getJob(id)
+                .map(j -> ResponseEntity.ok(toDto(j)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @Operation(summary = "Відхилені рядки імпорту")
+    @ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ImportErrorDto.class))))
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<List<ImportErrorDto>> errors(@PathVariable Long id, @RequestParam(defaultValue = "100") int limit) {
+        var list = service.getErrors(id, limit).stream()
+                .map(e -> new ImportErrorDto(e.line(), e.message()))
+                .toList();
+        return ResponseEntity.ok(list);
+    }
+
+    // завантажений файл переносимо у власний тимчасовий файл: multipart-файл видаляється після запиту
+    private static Path spool(MultipartFile file) throws IOException {
+        Path tmp = Files.createTempFile("gradebook-import-", ".csv");
+        file.transferTo(tmp);
+        return tmp;
+    }
+
+    // ===== MAPPER =====
+    private ImportJobDto toDto(ImportJob j) {
+        ImportJobDto dto = new ImportJobDto();
+        dto.setId(j.getId());
+        dto.setFileName(j.getFileName());
+        dto.setStatus(j.getStatus().name());
+        dto.setRowsImported(j.getRowsImported());
+        dto.setRowsRejected(j.getRowsRejected());
+        dto.setLastError(j.getLastError());
+        dto.setStartedAt(j.getStartedAt());
+        dto.setFinishedAt(j.getFinishedAt());
+        if (j.getStartedAt() != null) {
+            LocalDateTime end = (j.getFinishedAt() != null) ? j.getFinishedAt() : LocalDateTime.now();
+            long ms = Math.max(1, Duration.between(j.getStartedAt(), end).toMillis());
+            dto.setRowsPerSecond(j.getRowsImported() * 1000 / ms);
+        }
+        return dto;
+    }
+}
@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.axolotlik.labs.dto.lesson.CreateLessonRequest;
 import org.axolotlik.labs.dto.lesson.LessonDto;
+import org.axolotlik.labs.dto.lesson.LessonLookupDto;
 import org.axolotlik.labs.dto.lesson.LessonPageDto;
 import org.axolotlik.labs.dto.lesson.UpdateLessonRequest;
 import org.axolotlik.labs.model.Lesson;
@@ -19,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,6 +29,9 @@ import java.util.Optional;
 @RequestMapping("/api/lessons")
 public class LessonsRestController {
 
+    // максимальна кількість id в одному batch-запиті
+    static final int MAX_BATCH_IDS = 1000;
+
     private final JournalService service;
 
     public LessonsRestController(JournalService service) {
@@ -55,6 +60,30 @@ public class LessonsRestController {
         return ResponseEntity.ok(toDto(p));
     }
 
+    // ===== BATCH GET =====
+    @Operation(
+            summary = "Отримати кілька занять за списком ID",
+            description = "Результат за кожним id; неіснуючі id повертаються з found = false. Максимум 1000 id."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Порожній, завеликий або з порожнім id список",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<Long, LessonLookupDto>> byIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS || ids.contains(null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Map<Long, Lesson> found = service.getLessonsByIds(ids);
+        Map<Long, LessonLookupDto> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Lesson l = found.get(id);
+            result.put(id, (l != null) ? new LessonLookupDto(true, toDto(l)) : new LessonLookupDto(false, null));
+        }
+        return ResponseEntity.ok(result);
+    }
+
     // ===== GET ONE =====
     @Operation(summary = "Отримати заняття за ID")
     @ApiResponses({
@@ -152,7 +181,7 @@ public class LessonsRestController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
         List<Lesson> list = service.searchLessonsByQuery(subject, from, to);
-        return ResponseEntity.ok(list.stream().map(this::toDto).toList());
+        return ResponseEntity.ok(toDtos(list));
     }
 
     // NamedQuery по темі (pattern)
@@ -162,29 +191,41 @@ public class LessonsRestController {
     @GetMapping("/search/by-topic")
     public ResponseEntity<List<LessonDto>> searchByTopicNamed(@RequestParam String pattern) {
         List<Lesson> list = service.searchLessonsByTopicNamed(pattern);
-        return ResponseEntity.ok(list.stream().map(this::toDto).toList());
+        return ResponseEntity.ok(toDtos(list));
     }
 
     // ===== MAPPERS =====
     private LessonDto toDto(Lesson l) {
+        int count = (l.getMarks() != null) ? l.getMarks().size()
+                : service.getMarksForLesson(l.getId()).size();
+        return toDto(l, count);
+    }
+
+    private LessonDto toDto(Lesson l, int marksCount) {
         LessonDto dto = new LessonDto();
         dto.setId(l.getId());
         dto.setSubject(l.getSubject());
         dto.setTopic(l.getTopic());
         dto.setDate(l.getDate());
-        int count = (l.getMarks() != null) ? l.getMarks().size()
-                : service.getMarksForLesson(l.getId()).size();
-        dto.setMarksCount(count);
+        dto.setMarksCount(marksCount);
         return dto;
     }
 
+    // списки: лічильники всіх уроків одним груповим запитом, а не лінива колекція marks на кожен урок
+    private List<LessonDto> toDtos(List<Lesson> lessons) {
+        Map<Long, Long> counts = service.countMarksByLessonIds(lessons.stream().map(Lesson::getId).toList());
+        return lessons.stream()
+                .map(l -> toDto(l, counts.getOrDefault(l.getId(), 0L).intValue()))
+                .toList();
+    }
+
     private LessonPageDto toDto(LessonPage p) {
         LessonPageDto dto = new LessonPageDto();
         dto.setPage(p.page());
         dto.setSize(p.size());
         dto.setTotalElements(p.totalElements());
         dto.setTotalPages(p.totalPages());
-        dto.setContent(p.content().stream().map(this::toDto).toList());
+        dto.setContent(toDtos(p.content()));
         return dto;
     }
 }
@@ -0,0 +1,74 @@
+package org.axolotlik.labs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.axolotlik.labs.dto.mark.MarkDto;
+import org.axolotlik.labs.dto.mark.MarksLookupDto;
+import org.axolotlik.labs.dto.mark.MarksLookupRequest;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.web.Bulkhead;
+import org.axolotlik.labs.web.EndpointGroup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class MarksLookupRestController {
+
+    private final JournalService service;
+
+    public MarksLookupRestController(JournalService service) {
+        this.service = service;
+    }
+
+    // ===== BATCH LOOKUP =====
+    @Operation(
+            summary = "Відмітки для багатьох занять одним запитом",
+            description = "Ключ — id заняття; неіснуючі заняття повертаються з found = false. Максимум 1000 id."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Порожній, завеликий або з порожнім id список",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    // POST лише заради тіла запиту — за навантаженням це читання
+    @Bulkhead(EndpointGroup.READ)
+    @PostMapping("/marks:lookup")
+    public ResponseEntity<Map<Long, MarksLookupDto>> lookup(@RequestBody MarksLookupRequest req) {
+        if (req == null || req.getLessonIds() == null || req.getLessonIds().isEmpty()
+                || req.getLessonIds().size() > LessonsRestController.MAX_BATCH_IDS
+                || req.getLessonIds().contains(null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        Map<Long, List<Mark>> marks = service.getMarksByLessonIds(req.getLessonIds());
+        Map<Long, MarksLookupDto> result = new LinkedHashMap<>();
+        for (Long id : req.getLessonIds()) {
+            List<Mark> list = marks.get(id);
+            result.put(id, (list != null)
+                    ? new MarksLookupDto(true, list.stream().map(this::toDto).toList())
+                    : new MarksLookupDto(false, List.of()));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // ===== MAPPER =====
+    private MarkDto toDto(Mark m) {
+        MarkDto dto = new MarkDto();
+        dto.setId(m.getId());
+        dto.setLessonId(m.getLessonId());
+        dto.setStudentName(m.getStudentName());
+        dto.setGrade(m.getGrade());
+        dto.setPresent(m.isPresent());
+        dto.setTimestamp(m.getTimestamp());
+        return dto;
+    }
+}
@@ -0,0 +1,77 @@
+package org.axolotlik.labs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.axolotlik.labs.dto.stats.TimeSeriesPointDto;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.model.TimeSeriesPoint;
+import org.axolotlik.labs.service.StatsService;
+import org.axolotlik.labs.web.Bulkhead;
+import org.axolotlik.labs.web.EndpointGroup;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsRestController {
+
+    private final StatsService service;
+
+    public StatsRestController(StatsService service) {
+        this.service = service;
+    }
+
+    // ===== TIME SERIES =====
+    @Operation(
+            summary = "Відвідуваність і середня оцінка по предмету в часі",
+            description = "Читається з попередньо агрегованих rollup-ів. granularity: DAY, WEEK, MONTH; "
+                    + "за замовчуванням — останній рік."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TimeSeriesPointDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Некоректні параметри",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<TimeSeriesPointDto>> timeSeries(
+            @RequestParam String subject,
+            @RequestParam(defaultValue = "WEEK") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate end = (to != null) ? to : LocalDate.now();
+        LocalDate start = (from != null) ? from : end.minusYears(1);
+        if (subject.isBlank() || start.isAfter(end)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        var list = service.timeSeries(subject, granularity, start, end).stream().map(this::toDto).toList();
+        return ResponseEntity.ok(list);
+    }
+
+    // ===== BACKFILL =====
+    @Operation(summary = "Перерахувати rollup-и з усієї історії відміток")
+    @ApiResponse(responseCode = "204", description = "Перераховано",
+            content = @Content(schema = @Schema(hidden = true)))
+    @Bulkhead(EndpointGroup.HEAVY)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        service.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    // ===== MAPPER =====
+    private TimeSeriesPointDto toDto(TimeSeriesPoint p) {
+        return new TimeSeriesPointDto(p.periodStart(), p.marksCount(), p.presentCount(),
+                p.attendanceRate(), p.averageGrade());
+    }
+}
@@ -1,34 +1,58 @@
 package org.axolotlik.labs.controller;
 
+import org.axolotlik.labs.model.JournalRow;
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.MarkRow;
 import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.service.support.RowCursor;
+import org.axolotlik.labs.web.Bulkhead;
+import org.axolotlik.labs.web.EndpointGroup;
+import org.axolotlik.labs.web.StreamingPages;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.ModelAndView;
 
 @Controller
 @RequestMapping("/")
 public class StudentController {
 
     private final JournalService journalService;
+    private final StreamingPages streamingPages;
 
     // @Autowired тут не обов'язкова, бо конструктор один, але використана в якості прикладу
     @Autowired
-    public StudentController(JournalService journalService) {
+    public StudentController(JournalService journalService, StreamingPages streamingPages) {
         this.journalService = journalService;
+        this.streamingPages = streamingPages;
     }
 
+    // повний рендер журналу — важкий запит, має власний bulkhead
+    @Bulkhead(EndpointGroup.HEAVY)
     @GetMapping
-    public String showJournal(Model model) {
-        model.addAttribute("lessons", journalService.getAllLessons());
-        return "journal";
+    public ModelAndView showJournal(Model model) {
+        if (streamingPages.enabled()) {
+            return new ModelAndView(streamingPages.view("journal", (vars, render) ->
+                    journalService.streamJournal(lessons -> {
+                        vars.put("lessons", lessons);
+                        render.run();
+                    })));
+        }
+        var rows = journalService.getAllLessons().stream().map(JournalRow::of).toList();
+        model.addAttribute("lessons", RowCursor.of(rows));
+        return new ModelAndView("journal");
     }
 
+    // відміток одного уроку небагато, тож сторінка не стрімиться: однакові запити сторінки (весь клас
+    // відкриває один урок) зливаються в одне завантаження в getLessonById і не тримають з'єднання на час рендеру
     @GetMapping("/lesson/{id}")
-    public String showLesson(@PathVariable Long id, Model model) {
-        model.addAttribute("lesson", journalService.getLessonById(id).orElseThrow());
-        return "lesson-details";
+    public ModelAndView showLesson(@PathVariable Long id, Model model) {
+        Lesson lesson = journalService.getLessonById(id).orElseThrow();
+        model.addAttribute("lesson", lesson);
+        model.addAttribute("marks", RowCursor.of(lesson.getMarks().stream().map(MarkRow::of).toList()));
+        return new ModelAndView("lesson-details");
     }
-}
\ No newline at end of file
+}
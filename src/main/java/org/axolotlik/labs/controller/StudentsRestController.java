@@ -0,0 +1,77 @@
+package org.axolotlik.labs.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.axolotlik.labs.dto.mark.MarkDto;
+import org.axolotlik.labs.dto.student.StudentReportDto;
+import org.axolotlik.labs.dto.student.SubjectReportDto;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.model.StudentReport;
+import org.axolotlik.labs.model.StudentSubjectStats;
+import org.axolotlik.labs.service.StudentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/students")
+public class StudentsRestController {
+
+    // максимальна кількість останніх відміток у звіті
+    static final int MAX_LATEST = 100;
+
+    private final StudentService service;
+
+    public StudentsRestController(StudentService service) {
+        this.service = service;
+    }
+
+    // ===== REPORT =====
+    @Operation(
+            summary = "Звіт по учню",
+            description = "Відвідуваність і середня оцінка по кожному предмету та останні відмітки учня. "
+                    + "latest: скільки останніх відміток повернути (1..100)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = StudentReportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некоректні параметри",
+                    content = @Content(schema = @Schema(hidden = true))),
+            @ApiResponse(responseCode = "404", description = "Учня не знайдено",
+                    content = @Content(schema = @Schema(hidden = true)))
+    })
+    @GetMapping("/{id}/report")
+    public ResponseEntity<StudentReportDto> report(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "20") int latest) {
+        if (latest < 1 || latest > MAX_LATEST) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return service.report(id, latest)
+                .map(r -> ResponseEntity.ok(toDto(r)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    // ===== MAPPERS =====
+    private StudentReportDto toDto(StudentReport r) {
+        return new StudentReportDto(r.student().getId(), r.student().getName(),
+                r.subjects().stream().map(this::toDto).toList(),
+                r.latestMarks().stream().map(this::toDto).toList());
+    }
+
+    private SubjectReportDto toDto(StudentSubjectStats s) {
+        long marks = s.getMarks();
+        long present = s.getPresent();
+        long graded = s.getGraded();
+        double attendance = (marks == 0) ? 0.0 : (double) present / marks;
+        Double average = (graded == 0) ? null : (double) s.getGradeSum() / graded;
+        return new SubjectReportDto(s.getSubject(), marks, present, attendance, average);
+    }
+
+    private MarkDto toDto(Mark m) {
+        return new MarkDto(m.getId(), m.getLessonId(), m.getStudentName(), m.getGrade(),
+                m.isPresent(), m.getTimestamp());
+    }
+}
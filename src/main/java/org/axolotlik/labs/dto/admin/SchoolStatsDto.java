@@ -0,0 +1,15 @@
+package org.axolotlik.labs.dto.admin;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "SchoolStatsDto")
+public class SchoolStatsDto {
+    private Long schoolId;
+    @Schema(description = "Живі (не видалені й не архівні) уроки")
+    private long lessons;
+    private long marks;
+}
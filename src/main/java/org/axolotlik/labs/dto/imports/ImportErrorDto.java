@@ -0,0 +1,14 @@
+package org.axolotlik.labs.dto.imports;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "ImportErrorDto")
+public class ImportErrorDto {
+    @Schema(description = "Номер запису у файлі (заголовок — 1)")
+    private long line;
+    private String message;
+}
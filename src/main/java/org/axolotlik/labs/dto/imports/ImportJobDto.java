@@ -0,0 +1,21 @@
+package org.axolotlik.labs.dto.imports;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Schema(name = "ImportJobDto", description = "Стан імпорту; FAILED-імпорт можна продовжити через /api/imports/{id}/resume")
+public class ImportJobDto {
+    private Long id;
+    private String fileName;
+    private String status;
+    private long rowsImported;
+    private long rowsRejected;
+    @Schema(description = "Середня швидкість імпорту, рядків/с")
+    private Long rowsPerSecond;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
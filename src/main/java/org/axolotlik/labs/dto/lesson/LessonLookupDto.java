@@ -0,0 +1,13 @@
+package org.axolotlik.labs.dto.lesson;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "LessonLookupDto", description = "Результат batch-запиту для одного id; lesson = null, якщо не знайдено")
+public class LessonLookupDto {
+    private boolean found;
+    private LessonDto lesson;
+}
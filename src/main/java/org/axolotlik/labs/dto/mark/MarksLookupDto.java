@@ -0,0 +1,15 @@
+package org.axolotlik.labs.dto.mark;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "MarksLookupDto", description = "Відмітки одного заняття; found = false, якщо заняття не існує")
+public class MarksLookupDto {
+    private boolean found;
+    private List<MarkDto> marks;
+}
@@ -0,0 +1,12 @@
+package org.axolotlik.labs.dto.mark;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(name = "MarksLookupRequest")
+public class MarksLookupRequest {
+    private List<Long> lessonIds;
+}
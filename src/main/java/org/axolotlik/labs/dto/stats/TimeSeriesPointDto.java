@@ -0,0 +1,21 @@
+package org.axolotlik.labs.dto.stats;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "TimeSeriesPointDto")
+public class TimeSeriesPointDto {
+    @Schema(description = "Початок періоду (день / понеділок тижня / 1 число місяця)")
+    private LocalDate periodStart;
+    private long marksCount;
+    private long presentCount;
+    @Schema(description = "Частка присутніх, 0..1")
+    private double attendanceRate;
+    @Schema(description = "Середня оцінка; null, якщо оцінок немає")
+    private Double averageGrade;
+}
@@ -0,0 +1,20 @@
+package org.axolotlik.labs.dto.student;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axolotlik.labs.dto.mark.MarkDto;
+
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "StudentReportDto")
+public class StudentReportDto {
+    private Long studentId;
+    private String name;
+    @Schema(description = "Агрегати по предметах, за абеткою")
+    private List<SubjectReportDto> subjects;
+    @Schema(description = "Останні відмітки, від найновішої")
+    private List<MarkDto> latestMarks;
+}
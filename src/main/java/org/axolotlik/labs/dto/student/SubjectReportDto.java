@@ -0,0 +1,18 @@
+package org.axolotlik.labs.dto.student;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+@Schema(name = "SubjectReportDto")
+public class SubjectReportDto {
+    private String subject;
+    private long marksCount;
+    private long presentCount;
+    @Schema(description = "Частка присутніх, 0..1")
+    private double attendanceRate;
+    @Schema(description = "Середня оцінка; null, якщо оцінок немає")
+    private Double averageGrade;
+}
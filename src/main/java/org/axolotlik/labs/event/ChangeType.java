@@ -0,0 +1,5 @@
+package org.axolotlik.labs.event;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
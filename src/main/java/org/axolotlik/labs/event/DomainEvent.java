@@ -0,0 +1,9 @@
+package org.axolotlik.labs.event;
+
+/**
+ * Подія, що записується в outbox разом зі зміною і доставляється підписникам після коміту.
+ */
+public interface DomainEvent {
+    String aggregateType();
+    Long aggregateId();
+}
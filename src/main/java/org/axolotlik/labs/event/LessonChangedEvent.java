@@ -0,0 +1,25 @@
+package org.axolotlik.labs.event;
+
+import java.time.LocalDate;
+
+/**
+ * Подія зміни заняття; пишеться в outbox у транзакції запису.
+ */
+public record LessonChangedEvent(
+        ChangeType type,
+        Long lessonId,
+        String subject,
+        String topic,
+        LocalDate date
+) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "lesson";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return lessonId;
+    }
+}
@@ -0,0 +1,24 @@
+package org.axolotlik.labs.event;
+
+/**
+ * Подія зміни відмітки; пишеться в outbox у транзакції запису.
+ */
+public record MarkChangedEvent(
+        ChangeType type,
+        Long markId,
+        Long lessonId,
+        String studentName,
+        Integer grade,
+        boolean present
+) implements DomainEvent {
+
+    @Override
+    public String aggregateType() {
+        return "mark";
+    }
+
+    @Override
+    public Long aggregateId() {
+        return markId;
+    }
+}
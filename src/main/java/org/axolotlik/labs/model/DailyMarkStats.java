@@ -0,0 +1,16 @@
+package org.axolotlik.labs.model;
+
+import java.time.LocalDate;
+
+/**
+ * Проєкція агрегату відміток по (школа, предмет, дата заняття).
+ */
+public interface DailyMarkStats {
+    Long getSchoolId();
+    String getSubject();
+    LocalDate getDate();
+    Long getMarks();
+    Long getPresent();
+    Long getGradeSum();
+    Long getGraded();
+}
@@ -0,0 +1,17 @@
+package org.axolotlik.labs.model;
+
+import java.time.LocalDate;
+
+/**
+ * {@link DailyMarkStats} як значення: агрегати з JDBC (архів) і дельти імпорту.
+ */
+public record DailyMarkTotals(Long schoolId, String subject, LocalDate date, long marks, long present,
+                              long gradeSum, long graded) implements DailyMarkStats {
+    @Override public Long getSchoolId() { return schoolId; }
+    @Override public String getSubject() { return subject; }
+    @Override public LocalDate getDate() { return date; }
+    @Override public Long getMarks() { return marks; }
+    @Override public Long getPresent() { return present; }
+    @Override public Long getGradeSum() { return gradeSum; }
+    @Override public Long getGraded() { return graded; }
+}
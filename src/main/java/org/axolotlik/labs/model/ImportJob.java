@@ -0,0 +1,42 @@
+package org.axolotlik.labs.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_job")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class ImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+
+    // розмір чанка фіксується на старті, щоб при продовженні чанки збігалися
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    // лічильники оновлює імпортер атомарними UPDATE з воркерів
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,7 @@
+package org.axolotlik.labs.model;
+
+/**
+ * Відхилений рядок CSV: номер запису у файлі (заголовок — 1) і причина.
+ */
+public record ImportRowError(long line, String message) {
+}
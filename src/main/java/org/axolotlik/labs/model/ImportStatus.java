@@ -0,0 +1,5 @@
+package org.axolotlik.labs.model;
+
+public enum ImportStatus {
+    RUNNING, COMPLETED, FAILED
+}
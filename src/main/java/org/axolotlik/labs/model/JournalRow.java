@@ -0,0 +1,26 @@
+package org.axolotlik.labs.model;
+
+import java.time.LocalDate;
+
+/**
+ * Рядок журналу: урок і кількість його відміток, без самих відміток.
+ */
+public interface JournalRow {
+    Long getId();
+    LocalDate getDate();
+    String getSubject();
+    String getTopic();
+    Long getMarksCount();
+
+    // той самий рядок з уже завантаженого уроку — для рендеру без стрімінгу
+    static JournalRow of(Lesson lesson) {
+        long marksCount = (lesson.getMarks() != null) ? lesson.getMarks().size() : 0;
+        return new JournalRow() {
+            @Override public Long getId() { return lesson.getId(); }
+            @Override public LocalDate getDate() { return lesson.getDate(); }
+            @Override public String getSubject() { return lesson.getSubject(); }
+            @Override public String getTopic() { return lesson.getTopic(); }
+            @Override public Long getMarksCount() { return marksCount; }
+        };
+    }
+}
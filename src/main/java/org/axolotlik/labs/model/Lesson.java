@@ -3,7 +3,10 @@ package org.axolotlik.labs.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,7 +23,8 @@ import java.util.List;
                 """
         )
 })
-@Data @NoArgsConstructor @AllArgsConstructor @Builder
+@SQLRestriction("deleted_at is null") // м'яко видалені рядки не бачить жоден запит до сутності
+@Data @NoArgsConstructor @AllArgsConstructor @Builder(toBuilder = true)
 public class Lesson {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,9 +40,20 @@ public class Lesson {
     @Column(name = "lesson_date", nullable = false)
     private LocalDate date;
 
+    // школа (тенант): Hibernate сам підставляє її при вставці і фільтрує за нею всі запити
+    @TenantId
+    @JsonIgnore
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
     @JsonIgnore // щоб не міняти існуючі JSON-відповіді і уникнути рекурсії
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "lesson", fetch = FetchType.LAZY)
     private List<Mark> marks = new ArrayList<>();
+
+    // м'яке видалення; пишеться лише окремим UPDATE, щоб збереження сутності не "воскресило" рядок
+    @JsonIgnore
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
 }
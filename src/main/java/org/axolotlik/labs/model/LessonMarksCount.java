@@ -0,0 +1,9 @@
+package org.axolotlik.labs.model;
+
+/**
+ * Проєкція: кількість живих відміток уроку.
+ */
+public interface LessonMarksCount {
+    Long getLessonId();
+    Long getMarks();
+}
@@ -3,6 +3,8 @@ package org.axolotlik.labs.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 import java.time.LocalDateTime;
 
 @Entity
@@ -14,12 +16,14 @@ import java.time.LocalDateTime;
                 query = """
                 select m from Mark m
                 where m.lessonId = :lessonId
+                  and m.lesson.deletedAt is null
                   and m.timestamp between :from and :to
                 order by m.timestamp desc
                 """
         )
 })
-@Data @NoArgsConstructor @AllArgsConstructor @Builder
+@SQLRestriction("deleted_at is null") // заодно ховає видалені відмітки з колекції Lesson.marks
+@Data @NoArgsConstructor @AllArgsConstructor @Builder(toBuilder = true)
 public class Mark {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +32,12 @@ public class Mark {
     @Column(name = "lesson_id", nullable = false)
     private Long lessonId;
 
+    // школа відмітки; збігається зі школою уроку, бо обидва пишуться в контексті тієї самої школи
+    @TenantId
+    @JsonIgnore
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
     @JsonIgnore // щоб не міняти JSON і не зловити рекурсію при серіалізації
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -35,6 +45,10 @@ public class Mark {
     @JoinColumn(name = "lesson_id", insertable = false, updatable = false)
     private Lesson lesson;
 
+    // учень за іменем; ставить сервіс (або імпорт) при записі, див. StudentService.resolveId
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
     @Column(name = "student_name", nullable = false)
     private String studentName;
 
@@ -47,6 +61,11 @@ public class Mark {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime timestamp;
 
+    // save() цю колонку не чіпає: позначку ставить лише MarkRepository.softDelete
+    @JsonIgnore
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
     // зручний сеттер: тримає lessonId і lesson в sync
     public void setLesson(Lesson lesson) {
         this.lesson = lesson;
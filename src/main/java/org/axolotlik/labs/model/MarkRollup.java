@@ -0,0 +1,54 @@
+package org.axolotlik.labs.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Агрегат відміток по предмету за період. Оновлюється інкрементно разом із записом відміток,
+ * а повністю перераховується через StatsService.rebuild().
+ */
+@Entity
+@Table(name = "mark_rollup")
+@IdClass(MarkRollup.Key.class)
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class MarkRollup {
+    @Id
+    private String subject;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Granularity granularity;
+
+    @Id
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    // частина первинного ключа в БД; у сутності — лише фільтр тенанта
+    @TenantId
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "marks_count", nullable = false)
+    private long marksCount;
+
+    @Column(name = "present_count", nullable = false)
+    private long presentCount;
+
+    // сума та кількість лише виставлених оцінок (grade > 0)
+    @Column(name = "grade_sum", nullable = false)
+    private long gradeSum;
+
+    @Column(name = "graded_count", nullable = false)
+    private long gradedCount;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String subject;
+        private Granularity granularity;
+        private LocalDate periodStart;
+    }
+}
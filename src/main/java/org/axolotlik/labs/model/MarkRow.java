@@ -0,0 +1,24 @@
+package org.axolotlik.labs.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Рядок відмітки для сторінки уроку; завантажені (або архівні) відмітки обгортає {@link #of(Mark)}.
+ */
+public interface MarkRow {
+    Long getId();
+    String getStudentName();
+    Integer getGrade();
+    boolean isPresent();
+    LocalDateTime getTimestamp();
+
+    static MarkRow of(Mark mark) {
+        return new MarkRow() {
+            @Override public Long getId() { return mark.getId(); }
+            @Override public String getStudentName() { return mark.getStudentName(); }
+            @Override public Integer getGrade() { return mark.getGrade(); }
+            @Override public boolean isPresent() { return mark.isPresent(); }
+            @Override public LocalDateTime getTimestamp() { return mark.getTimestamp(); }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package org.axolotlik.labs.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    // просте ім'я класу події, напр. MarkChangedEvent
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    // подія у JSON
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // null — ще не доставлено підписникам
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // невдалі спроби доставки; після ліміту подія паркується і більше не блокує чергу
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    // не null — подію запарковано (dead-letter), relay її пропускає
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+}
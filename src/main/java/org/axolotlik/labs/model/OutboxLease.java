@@ -0,0 +1,28 @@
+package org.axolotlik.labs.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Оренда relay на шарді: доставляє лише той под, що її тримає, тож підписники не отримують ту саму подію
+ * з кількох подів. Тут же курсор — id останньої обробленої (доставленої чи запаркованої) події.
+ */
+@Entity
+@Table(name = "outbox_lease")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxLease {
+    public static final String RELAY = "relay";
+
+    @Id
+    private String name;
+
+    private String holder;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "last_event_id")
+    private Long lastEventId;
+}
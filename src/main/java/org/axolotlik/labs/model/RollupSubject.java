@@ -0,0 +1,9 @@
+package org.axolotlik.labs.model;
+
+/**
+ * Проєкція: (школа, предмет) — одиниця перерахунку rollup-ів.
+ */
+public interface RollupSubject {
+    Long getSchoolId();
+    String getSubject();
+}
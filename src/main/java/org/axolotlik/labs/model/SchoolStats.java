@@ -0,0 +1,11 @@
+package org.axolotlik.labs.model;
+
+/**
+ * Обсяг живих даних однієї школи на шарді.
+ */
+public record SchoolStats(
+        Long schoolId,
+        long lessons,
+        long marks
+) {
+}
@@ -0,0 +1,26 @@
+package org.axolotlik.labs.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.TenantId;
+
+/**
+ * Учень школи. Ім'я унікальне в межах школи — за ним відмітки (і CSV-імпорт) знаходять учня.
+ */
+@Entity
+@Table(name = "student")
+@Data @NoArgsConstructor @AllArgsConstructor @Builder
+public class Student {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @JsonIgnore
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -0,0 +1,13 @@
+package org.axolotlik.labs.model;
+
+import java.util.List;
+
+/**
+ * Звіт по учню: агрегати по предметах і останні відмітки (живі, без архіву).
+ */
+public record StudentReport(
+        Student student,
+        List<StudentSubjectStats> subjects,
+        List<Mark> latestMarks
+) {
+}
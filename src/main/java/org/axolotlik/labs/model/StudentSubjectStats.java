@@ -0,0 +1,12 @@
+package org.axolotlik.labs.model;
+
+/**
+ * Проєкція агрегату відміток одного учня по предмету.
+ */
+public interface StudentSubjectStats {
+    String getSubject();
+    Long getMarks();
+    Long getPresent();
+    Long getGradeSum();
+    Long getGraded();
+}
@@ -0,0 +1,15 @@
+package org.axolotlik.labs.model;
+
+import java.time.LocalDate;
+
+/**
+ * Точка часового ряду статистики; averageGrade = null, якщо за період немає оцінок.
+ */
+public record TimeSeriesPoint(
+        LocalDate periodStart,
+        long marksCount,
+        long presentCount,
+        double attendanceRate,
+        Double averageGrade
+) {
+}
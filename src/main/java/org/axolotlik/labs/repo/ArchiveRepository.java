@@ -0,0 +1,147 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.model.DailyMarkStats;
+import org.axolotlik.labs.model.DailyMarkTotals;
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Архівні таблиці lesson_archive / mark_archive. Звичайний JDBC, а не JPA-сутності:
+ * архів лише читається (холодний шлях {@code JournalService}) і наповнюється
+ * пакетними INSERT ... SELECT з живих таблиць.
+ */
+@Repository
+public class ArchiveRepository {
+
+    // без школи в контексті (фонові задачі) — усі школи шарду
+    private static final String SCHOOL_FILTER = " and (:school is null or school_id = :school)";
+
+    private static final RowMapper<Lesson> LESSON = (rs, i) -> {
+        Lesson l = new Lesson();
+        l.setId(rs.getLong("id"));
+        l.setSchoolId(rs.getLong("school_id"));
+        l.setSubject(rs.getString("subject"));
+        l.setTopic(rs.getString("topic"));
+        l.setDate(rs.getDate("lesson_date").toLocalDate());
+        return l;
+    };
+
+    private static final RowMapper<Mark> MARK = (rs, i) -> Mark.builder()
+            .id(rs.getLong("id"))
+            .schoolId(rs.getLong("school_id"))
+            .lessonId(rs.getLong("lesson_id"))
+            .studentName(rs.getString("student_name"))
+            .grade(rs.getObject("grade", Integer.class))
+            .present(rs.getBoolean("present"))
+            .timestamp(rs.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    public ArchiveRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+    }
+
+    // ===== читання =====
+
+    // архів читається напряму через JDBC, тож фільтр школи (який для сутностей ставить Hibernate) — тут
+
+    public List<Lesson> findLessons(Collection<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return namedJdbc.query("select id, school_id, subject, topic, lesson_date from lesson_archive "
+                + "where id in (:ids)" + SCHOOL_FILTER, params("ids", ids), LESSON);
+    }
+
+    public List<Mark> findMarksByLessonIds(Collection<Long> lessonIds) {
+        if (lessonIds.isEmpty()) return List.of();
+        return namedJdbc.query("select id, school_id, lesson_id, student_name, grade, present, updated_at "
+                + "from mark_archive where lesson_id in (:ids)" + SCHOOL_FILTER, params("ids", lessonIds), MARK);
+    }
+
+    public Optional<Mark> findMark(Long id) {
+        return namedJdbc.query("select id, school_id, lesson_id, student_name, grade, present, updated_at "
+                + "from mark_archive where id = :id" + SCHOOL_FILTER, params("id", id), MARK).stream().findFirst();
+    }
+
+    public boolean isArchivedLesson(Long id) {
+        return !namedJdbc.queryForList("select 1 from lesson_archive where id = :id" + SCHOOL_FILTER,
+                params("id", id), Integer.class).isEmpty();
+    }
+
+    public boolean isArchivedMark(Long id) {
+        return !namedJdbc.queryForList("select 1 from mark_archive where id = :id" + SCHOOL_FILTER,
+                params("id", id), Integer.class).isEmpty();
+    }
+
+    // той самий агрегат, що й MarkRepository.aggregateDailyForSubject(), — для перерахунку rollup-ів
+    public List<DailyMarkStats> aggregateDailyForSubject(Long school, String subject) {
+        return namedJdbc.query("""
+                select l.school_id, l.subject, l.lesson_date, count(*) as marks,
+                       sum(case when m.present then 1 else 0 end) as present,
+                       sum(case when m.grade > 0 then m.grade else 0 end) as grade_sum,
+                       sum(case when m.grade > 0 then 1 else 0 end) as graded
+                from mark_archive m join lesson_archive l on l.id = m.lesson_id
+                where l.school_id = :school and l.subject = :subject
+                group by l.school_id, l.subject, l.lesson_date
+                """, new MapSqlParameterSource("school", school).addValue("subject", subject),
+                (rs, i) -> new DailyMarkTotals(
+                        rs.getLong("school_id"), rs.getString("subject"), rs.getDate("lesson_date").toLocalDate(),
+                        rs.getLong("marks"), rs.getLong("present"), rs.getLong("grade_sum"), rs.getLong("graded")));
+    }
+
+    // ===== перенесення =====
+
+    /**
+     * Живі уроки, старші за {@code before}, у порядку id — кандидати на наступну пачку.
+     */
+    public List<Long> findArchivableLessonIds(LocalDate before, int limit) {
+        return jdbc.queryForList("select id from lesson where lesson_date < ? and deleted_at is null "
+                + "order by id limit ?", Long.class, Date.valueOf(before), limit);
+    }
+
+    /**
+     * Переносить уроки разом з відмітками в архів; викликати в транзакції.
+     * Рядки уроків блокуються першими, тож нова відмітка до уроку чекає на коміт
+     * і не загубиться між копіюванням і видаленням.
+     *
+     * @return кількість перенесених відміток
+     */
+    public int moveLessons(Collection<Long> ids) {
+        List<Long> locked = namedJdbc.queryForList(
+                "select id from lesson where id in (:ids) and deleted_at is null for update",
+                new MapSqlParameterSource("ids", ids), Long.class);
+        if (locked.isEmpty()) return 0;
+
+        var params = new MapSqlParameterSource("ids", locked)
+                .addValue("at", Timestamp.valueOf(LocalDateTime.now()));
+        namedJdbc.update("insert into lesson_archive (id, school_id, subject, topic, lesson_date, archived_at) "
+                + "select id, school_id, subject, topic, lesson_date, :at from lesson where id in (:ids)", params);
+        // м'яко видалені відмітки не копіюються: їх однаково прибрав би purge
+        int marks = namedJdbc.update("insert into mark_archive (id, school_id, lesson_id, student_name, grade, present, updated_at) "
+                + "select id, school_id, lesson_id, student_name, grade, present, updated_at from mark "
+                + "where lesson_id in (:ids) and deleted_at is null", params);
+        namedJdbc.update("delete from mark where lesson_id in (:ids)", params);
+        namedJdbc.update("delete from lesson where id in (:ids)", params);
+        return marks;
+    }
+
+    private static MapSqlParameterSource params(String name, Object value) {
+        return new MapSqlParameterSource(name, value).addValue("school", TenantContext.school());
+    }
+}
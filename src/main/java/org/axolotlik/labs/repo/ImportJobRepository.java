@@ -0,0 +1,7 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.model.ImportJob;
+import org.springframework.data.repository.CrudRepository;
+
+public interface ImportJobRepository extends CrudRepository<ImportJob, Long> {
+}
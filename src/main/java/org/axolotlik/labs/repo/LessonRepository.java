@@ -1,12 +1,21 @@
 package org.axolotlik.labs.repo;
 
+import jakarta.persistence.QueryHint;
+import org.axolotlik.labs.model.JournalRow;
 import org.axolotlik.labs.model.Lesson;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LessonRepository extends CrudRepository<Lesson, Long> {
 
@@ -35,4 +44,43 @@ public interface LessonRepository extends CrudRepository<Lesson, Long> {
     List<Lesson> findBySubjectContainingIgnoreCaseAndDateBetween(
             String subject, LocalDate from, LocalDate to
     );
+
+    // потоковий рендер журналу: рядки читаються з курсора, кількість відміток рахує БД;
+    // для MySQL курсор працює лише з useCursorFetch=true у DB_URL, інакше драйвер читає весь результат
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+           select l.id as id, l.date as date, l.subject as subject, l.topic as topic,
+                  (select count(m) from Mark m where m.lessonId = l.id) as marksCount
+           from Lesson l
+           order by l.id
+           """)
+    Stream<JournalRow> streamJournal();
+
+    // batch multi-get: один IN-запит на чанк id
+    List<Lesson> findByIdIn(Collection<Long> ids);
+
+    @Query("select l.id from Lesson l where l.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // @SQLRestriction на Lesson ховає видалені уроки від JPQL/derived-запитів вище;
+    // findById перевизначено запитом, бо завантаження за id не всюди його враховує
+    @Query("select l from Lesson l where l.id = :id and l.deletedAt is null")
+    Optional<Lesson> findById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "update lesson set deleted_at = :at where id = :id and deleted_at is null", nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    // purge: урок прибирається лише тоді, коли його відміток уже немає — каскад нічого не блокує
+    @Query(value = """
+                   select l.id from lesson l
+                   where l.deleted_at < :before
+                     and not exists (select 1 from mark m where m.lesson_id = l.id)
+                   limit :limit
+                   """, nativeQuery = true)
+    List<Long> findPurgeableBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from lesson where id in (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,30 +1,68 @@
 package org.axolotlik.labs.repo;
 
+import org.axolotlik.labs.model.DailyMarkStats;
+import org.axolotlik.labs.model.LessonMarksCount;
 import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.model.StudentSubjectStats;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MarkRepository extends CrudRepository<Mark, Long> {
 
+    // Видалені відмітки відсікає @SQLRestriction на Mark; відмітки видаленого уроку
+    // фізично живуть до purge, тому кожен запит додатково перевіряє l.deletedAt
+
     // те, що вже використовує сервіс
-    List<Mark> findByLessonId(Long lessonId);
+    @Query("""
+           select m from Mark m join m.lesson l
+           where m.lessonId = :lessonId and l.deletedAt is null
+           """)
+    List<Mark> findByLessonId(@Param("lessonId") Long lessonId);
+
+    // batch: відмітки одразу для багатьох уроків, групуються в сервісі
+    @Query("""
+           select m from Mark m join m.lesson l
+           where m.lessonId in :lessonIds and l.deletedAt is null
+           """)
+    List<Mark> findByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
+
+    // лічильники для списку уроків: один груповий запит замість лінивої колекції marks на кожен урок
+    @Query("""
+           select m.lessonId as lessonId, count(m) as marks
+           from Mark m join m.lesson l
+           where m.lessonId in :lessonIds and l.deletedAt is null
+           group by m.lessonId
+           """)
+    List<LessonMarksCount> countByLessonIdIn(@Param("lessonIds") Collection<Long> lessonIds);
 
-    Optional<Mark> findById(Long id);
+    @Query("""
+           select m from Mark m join m.lesson l
+           where m.id = :id and l.deletedAt is null
+           """)
+    Optional<Mark> findById(@Param("id") Long id);
 
     // для latestMarks(limit): Page + Pageable
+    @Query(value = """
+                   select m from Mark m join m.lesson l
+                   where l.deletedAt is null
+                   order by m.timestamp desc
+                   """,
+           countQuery = "select count(m) from Mark m join m.lesson l where l.deletedAt is null")
     Page<Mark> findAllByOrderByTimestampDesc(Pageable pageable);
 
     // 5.1.1) @Query (JPQL): присутні оцінки по уроку
     @Query("""
-           select m from Mark m
-           where m.lessonId = :lessonId and m.present = true
+           select m from Mark m join m.lesson l
+           where m.lessonId = :lessonId and m.present = true and l.deletedAt is null
            order by m.timestamp desc
            """)
     List<Mark> findPresentByLesson(@Param("lessonId") Long lessonId);
@@ -34,4 +72,66 @@ public interface MarkRepository extends CrudRepository<Mark, Long> {
     List<Mark> findInRangeForLesson(@Param("lessonId") Long lessonId,
                                     @Param("from") LocalDateTime from,
                                     @Param("to") LocalDateTime to);
+
+    // агрегати для rollup-ів: по датах одного предмета школи — для backfill, і для одного уроку — при його видаленні/перенесенні
+    @Query("""
+           select l.schoolId as schoolId, l.subject as subject, l.date as date, count(m) as marks,
+                  sum(case when m.present = true then 1 else 0 end) as present,
+                  sum(case when m.grade > 0 then m.grade else 0 end) as gradeSum,
+                  sum(case when m.grade > 0 then 1 else 0 end) as graded
+           from Mark m join m.lesson l
+           where l.schoolId = :school and l.subject = :subject and l.deletedAt is null
+           group by l.schoolId, l.subject, l.date
+           """)
+    List<DailyMarkStats> aggregateDailyForSubject(@Param("school") Long school, @Param("subject") String subject);
+
+    @Query("""
+           select l.schoolId as schoolId, l.subject as subject, l.date as date, count(m) as marks,
+                  sum(case when m.present = true then 1 else 0 end) as present,
+                  sum(case when m.grade > 0 then m.grade else 0 end) as gradeSum,
+                  sum(case when m.grade > 0 then 1 else 0 end) as graded
+           from Mark m join m.lesson l
+           where m.lessonId = :lessonId and l.deletedAt is null
+           group by l.schoolId, l.subject, l.date
+           """)
+    List<DailyMarkStats> aggregateForLesson(@Param("lessonId") Long lessonId);
+
+    // звіт по учню: обидва запити йдуть індексом (student_id, updated_at)
+    @Query("""
+           select l.subject as subject, count(m) as marks,
+                  sum(case when m.present = true then 1 else 0 end) as present,
+                  sum(case when m.grade > 0 then m.grade else 0 end) as gradeSum,
+                  sum(case when m.grade > 0 then 1 else 0 end) as graded
+           from Mark m join m.lesson l
+           where m.studentId = :studentId and l.deletedAt is null
+           group by l.subject
+           """)
+    List<StudentSubjectStats> aggregateForStudent(@Param("studentId") Long studentId);
+
+    @Query("""
+           select m from Mark m join fetch m.lesson l
+           where m.studentId = :studentId and l.deletedAt is null
+           order by m.timestamp desc
+           """)
+    List<Mark> findLatestByStudent(@Param("studentId") Long studentId, Pageable pageable);
+
+    // м'яке видалення: O(1) UPDATE замість DELETE; нативно, щоб обійти @SQLRestriction
+    @Modifying
+    @Query(value = "update mark set deleted_at = :at where id = :id and deleted_at is null", nativeQuery = true)
+    int softDelete(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    // purge: спершу окремо видалені відмітки, потім відмітки видалених уроків
+    @Query(value = "select id from mark where deleted_at < :before limit :limit", nativeQuery = true)
+    List<Long> findDeletedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Query(value = """
+                   select m.id from mark m join lesson l on l.id = m.lesson_id
+                   where l.deleted_at < :before
+                   limit :limit
+                   """, nativeQuery = true)
+    List<Long> findOfLessonsDeletedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from mark where id in (:ids)", nativeQuery = true)
+    int purgeByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,77 @@
+package org.axolotlik.labs.repo;
+
+import jakarta.persistence.LockModeType;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.model.MarkRollup;
+import org.axolotlik.labs.model.RollupSubject;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MarkRollupRepository extends CrudRepository<MarkRollup, MarkRollup.Key> {
+
+    List<MarkRollup> findBySubjectAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+            String subject, Granularity granularity, LocalDate from, LocalDate to
+    );
+
+    // інкрементне оновлення: один upsert на (школа, предмет, крок, період)
+    @Modifying
+    @Query(value = """
+           insert into mark_rollup (school_id, subject, granularity, period_start,
+                                    marks_count, present_count, grade_sum, graded_count)
+           values (:school, :subject, :granularity, :periodStart, :marks, :present, :gradeSum, :graded)
+           on duplicate key update
+             marks_count = marks_count + :marks,
+             present_count = present_count + :present,
+             grade_sum = grade_sum + :gradeSum,
+             graded_count = graded_count + :graded
+           """, nativeQuery = true)
+    int applyDelta(@Param("school") Long school,
+                   @Param("subject") String subject,
+                   @Param("granularity") String granularity,
+                   @Param("periodStart") LocalDate periodStart,
+                   @Param("marks") long marks,
+                   @Param("present") long present,
+                   @Param("gradeSum") long gradeSum,
+                   @Param("graded") long graded);
+
+    // перерахунок: абсолютні значення замість дельти
+    @Modifying
+    @Query(value = """
+           insert into mark_rollup (school_id, subject, granularity, period_start,
+                                    marks_count, present_count, grade_sum, graded_count)
+           values (:school, :subject, :granularity, :periodStart, :marks, :present, :gradeSum, :graded)
+           on duplicate key update
+             marks_count = :marks,
+             present_count = :present,
+             grade_sum = :gradeSum,
+             graded_count = :graded
+           """, nativeQuery = true)
+    int setTotals(@Param("school") Long school,
+                  @Param("subject") String subject,
+                  @Param("granularity") String granularity,
+                  @Param("periodStart") LocalDate periodStart,
+                  @Param("marks") long marks,
+                  @Param("present") long present,
+                  @Param("gradeSum") long gradeSum,
+                  @Param("graded") long graded);
+
+    // блокує rollup-и предмета (діапазон первинного ключа) до кінця транзакції перерахунку:
+    // applyDelta цього предмета чекає, інші предмети пишуться як звичайно
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from MarkRollup r where r.schoolId = :school and r.subject = :subject")
+    List<MarkRollup> lockSubject(@Param("school") Long school, @Param("subject") String subject);
+
+    // усе, що може мати rollup-и: предмети живих і архівних уроків та вже наявні rollup-и
+    @Query(value = """
+           select school_id as schoolId, subject from lesson
+           union select school_id, subject from lesson_archive
+           union select school_id, subject from mark_rollup
+           """, nativeQuery = true)
+    List<RollupSubject> findRollupSubjects();
+}
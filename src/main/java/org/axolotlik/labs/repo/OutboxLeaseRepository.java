@@ -0,0 +1,26 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.model.OutboxLease;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface OutboxLeaseRepository extends CrudRepository<OutboxLease, String> {
+
+    // бере оренду, якщо вона вільна чи прострочена, або продовжує власну; 1 — оренда наша
+    @Modifying
+    @Query("""
+           update OutboxLease l set l.holder = :holder, l.expiresAt = :until
+           where l.name = :name and (l.holder = :holder or l.expiresAt is null or l.expiresAt < :now)
+           """)
+    int acquire(@Param("name") String name, @Param("holder") String holder,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // зсуває курсор лише власник оренди; 0 — оренду вже перехопили
+    @Modifying
+    @Query("update OutboxLease l set l.lastEventId = :lastId where l.name = :name and l.holder = :holder")
+    int advance(@Param("name") String name, @Param("holder") String holder, @Param("lastId") Long lastId);
+}
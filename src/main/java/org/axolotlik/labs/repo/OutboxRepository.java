@@ -0,0 +1,36 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxRepository extends CrudRepository<OutboxEvent, Long> {
+
+    // наступна пачка недоставлених і не запаркованих подій у порядку id
+    List<OutboxEvent> findByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :at where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    // невдала спроба доставки; parkedAt не null — подію запарковано
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = :attempts, e.lastError = :error, e.parkedAt = :parkedAt where e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error,
+                      @Param("parkedAt") LocalDateTime parkedAt);
+
+    // компакція: доставлені події, старші за retention
+    @Query("select e.id from OutboxEvent e where e.publishedAt < :before order by e.id")
+    List<Long> findPublishedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,27 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.model.Student;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StudentRepository extends CrudRepository<Student, Long> {
+
+    // JPQL, а не em.find: так Hibernate гарантовано додає фільтр школи
+    @Query("select s from Student s where s.id = :id")
+    Optional<Student> findById(@Param("id") Long id);
+
+    @Query("select s.id from Student s where s.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    // find-or-create без гонки: унікальний ключ (school_id, name) розводить паралельні вставки
+    @Modifying
+    @Query(value = """
+           insert into student (school_id, name) values (:school, :name)
+           on duplicate key update id = id
+           """, nativeQuery = true)
+    int insertIfAbsent(@Param("school") Long school, @Param("name") String name);
+}
@@ -0,0 +1,28 @@
+package org.axolotlik.labs.service;
+
+import org.axolotlik.labs.model.ImportJob;
+import org.axolotlik.labs.model.ImportRowError;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Масовий імпорт історичних журналів з CSV.
+ * Формат (з заголовком): lesson_date,subject,topic,student_name,present,grade,updated_at
+ */
+public interface GradebookImportService {
+
+    ImportJob createJob(String fileName);
+
+    // синхронно: імпортує файл (або продовжує перерваний імпорт, пропускаючи закомічені чанки)
+    ImportJob runImport(Long jobId, Path csv);
+
+    // асинхронно: файл тимчасовий і видаляється після завершення
+    void submitImport(Long jobId, Path tempCsv);
+
+    boolean isRunning(Long jobId);
+
+    Optional<ImportJob> getJob(Long jobId);
+    List<ImportRowError> getErrors(Long jobId, int limit);
+}
@@ -1,14 +1,18 @@
 package org.axolotlik.labs.service;
 
+import org.axolotlik.labs.model.JournalRow;
 import org.axolotlik.labs.model.Lesson;
 import org.axolotlik.labs.model.LessonPage;
 import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.service.support.RowCursor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface JournalService {
 
@@ -20,6 +24,10 @@ public interface JournalService {
     void deleteLesson(Long lessonId);
     LessonPage findLessons(String subject, LocalDate dateFrom, LocalDate dateTo, int page, int size);
     Optional<Lesson> patchLesson(Long id, Map<String, Object> updates);
+    Map<Long, Lesson> getLessonsByIds(Collection<Long> ids);                                    // batch, з відмітками
+
+    // потокове читання для рендеру великих сторінок: курсор відкритий лише всередині callback
+    void streamJournal(Consumer<RowCursor<JournalRow>> body);
 
     // MARKS
     List<Mark> getMarksForLesson(Long lessonId);
@@ -28,6 +36,8 @@ public interface JournalService {
     void updateMark(Long lessonId, Long markId, Mark updatedMark);
     void deleteMark(Long lessonId, Long markId);
     List<Mark> latestMarks(int limit);
+    Map<Long, List<Mark>> getMarksByLessonIds(Collection<Long> lessonIds);                      // лише для наявних уроків
+    Map<Long, Long> countMarksByLessonIds(Collection<Long> lessonIds);                          // живі уроки; без відміток — 0
 
     // НОВЕ: використання @Query / @NamedQuery / derived
     List<Lesson> searchLessonsByQuery(String subject, LocalDate from, LocalDate to);            // @Query (JPQL)
@@ -1,5 +1,15 @@
 package org.axolotlik.labs.service;
 
+/**
+ * Асинхронні сповіщення: виклик лише ставить повідомлення в чергу, доставка — у фонових потоках.
+ */
 public interface NotificationService {
-    void notify(String message);
+
+    String SYSTEM_RECIPIENT = "system";
+
+    default void notify(String message) {
+        notify(SYSTEM_RECIPIENT, message);
+    }
+
+    void notify(String recipient, String message);
 }
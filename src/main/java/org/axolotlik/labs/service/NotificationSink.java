@@ -0,0 +1,8 @@
+package org.axolotlik.labs.service;
+
+/**
+ * Канал доставки сповіщень (лог, файл, пошта...). Викликається з робочих потоків NotificationService.
+ */
+public interface NotificationSink {
+    void deliver(String recipient, String text);
+}
@@ -0,0 +1,15 @@
+package org.axolotlik.labs.service;
+
+import org.axolotlik.labs.model.SchoolStats;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Адмінські запити по всіх шардах одразу; шарди опитуються паралельно.
+ */
+public interface ShardAdminService {
+
+    // шард → школи на ньому з кількістю живих уроків і відміток
+    Map<String, List<SchoolStats>> schoolStats();
+}
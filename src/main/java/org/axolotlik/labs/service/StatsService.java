@@ -0,0 +1,24 @@
+package org.axolotlik.labs.service;
+
+import org.axolotlik.labs.model.DailyMarkStats;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.model.TimeSeriesPoint;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface StatsService {
+
+    // ЧИТАННЯ: з rollup-ів, без сканування mark
+    List<TimeSeriesPoint> timeSeries(String subject, Granularity granularity, LocalDate from, LocalDate to);
+
+    // ІНКРЕМЕНТНЕ ОНОВЛЕННЯ: викликається в транзакції запису; sign = +1 / -1
+    void applyMark(String subject, LocalDate lessonDate, Mark mark, int sign);
+    void applyLesson(Long lessonId, int sign);
+    void applyDaily(Collection<? extends DailyMarkStats> deltas);                 // дельти пакетного запису (імпорт)
+
+    // BACKFILL: перерахунок з історії, на всіх шардах; по одному предмету школи, без втрати паралельних дельт
+    void rebuild();
+}
@@ -0,0 +1,17 @@
+package org.axolotlik.labs.service;
+
+import org.axolotlik.labs.model.StudentReport;
+
+import java.util.Optional;
+
+/**
+ * Учні поточної школи.
+ */
+public interface StudentService {
+
+    // id учня за іменем; новий учень створюється (find-or-create), викликати в транзакції запису
+    Long resolveId(String name);
+
+    // агрегати по предметах і останні відмітки; empty — учня немає в цій школі
+    Optional<StudentReport> report(Long studentId, int latestLimit);
+}
@@ -0,0 +1,42 @@
+package org.axolotlik.labs.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.axolotlik.labs.service.NotificationSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Дописує сповіщення в локальний файл — зручно для тестів і локальної розробки.
+ */
+public class FileNotificationSink implements NotificationSink {
+
+    private final BufferedWriter writer;
+
+    public FileNotificationSink(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void deliver(String recipient, String text) {
+        try {
+            writer.write(LocalDateTime.now() + " [" + recipient + "] " + text);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,514 @@
+package org.axolotlik.labs.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.config.ImportProperties;
+import org.axolotlik.labs.model.DailyMarkTotals;
+import org.axolotlik.labs.model.ImportJob;
+import org.axolotlik.labs.model.ImportRowError;
+import org.axolotlik.labs.model.ImportStatus;
+import org.axolotlik.labs.repo.ImportJobRepository;
+import org.axolotlik.labs.service.GradebookImportService;
+import org.axolotlik.labs.service.StatsService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Файл читається потоково, нарізається на чанки фіксованого розміру, а чанки паралельно обробляють воркери:
+ * розв'язують заняття й учнів (з кешем і одним IN-запитом на чанк), вставляють відмітки одним JDBC batch
+ * і в тій самій транзакції додають дельти rollup-ів та фіксують номер чанка в import_chunk. Тому продовження
+ * імпорту просто пропускає вже закомічені чанки і не дублює ні відмітки, ні статистику.
+ */
+@Slf4j
+@Service
+public class GradebookImportServiceImpl implements GradebookImportService {
+
+    static final List<String> COLUMNS =
+            List.of("lesson_date", "subject", "topic", "student_name", "present", "grade", "updated_at");
+
+    private static final String INSERT_MARK = "insert into mark (school_id, lesson_id, student_id, student_name, "
+            + "grade, present, updated_at) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_STUDENT =
+            "insert into student (school_id, name) values (?, ?) on duplicate key update id = id";
+
+    private final ImportJobRepository jobRepo;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate newTx;
+    private final AsyncTaskExecutor executor;
+    private final ImportProperties props;
+    private final StatsService stats;
+
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    public GradebookImportServiceImpl(ImportJobRepository jobRepo, JdbcTemplate jdbc,
+                                      PlatformTransactionManager txManager,
+                                      @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                      ImportProperties props, StatsService stats) {
+        this.jobRepo = jobRepo;
+        this.jdbc = jdbc;
+        this.namedJdbc = new NamedParameterJdbcTemplate(jdbc);
+        this.tx = new TransactionTemplate(txManager);
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.props = props;
+        this.stats = stats;
+    }
+
+    @Override
+    public ImportJob createJob(String fileName) {
+        return jobRepo.save(ImportJob.builder()
+                .fileName(fileName)
+                .status(ImportStatus.RUNNING)
+                .chunkSize(props.getChunkSize())
+                .startedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    public void submitImport(Long jobId, Path tempCsv) {
+        executor.execute(() -> {
+            try {
+                runImport(jobId, tempCsv);
+            } finally {
+                try {
+                    Files.deleteIfExists(tempCsv);
+                } catch (IOException e) {
+                    log.warn("Імпорт #{}: не вдалося видалити тимчасовий файл {}", jobId, tempCsv, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean isRunning(Long jobId) {
+        return running.contains(jobId);
+    }
+
+    @Override
+    public ImportJob runImport(Long jobId, Path csv) {
+        ImportJob job = jobRepo.findById(jobId).orElseThrow();
+        if (job.getStatus() == ImportStatus.COMPLETED) return job;
+        if (!running.add(jobId)) throw new IllegalStateException("Імпорт #" + jobId + " вже виконується");
+
+        try {
+            jdbc.update("update import_job set status = ?, last_error = null, finished_at = null where id = ?",
+                    ImportStatus.RUNNING.name(), jobId);
+            String error = process(job, csv);
+            jdbc.update("update import_job set status = ?, last_error = ?, finished_at = ? where id = ?",
+                    (error == null ? ImportStatus.COMPLETED : ImportStatus.FAILED).name(),
+                    truncate(error, 1000), Timestamp.valueOf(LocalDateTime.now()), jobId);
+        } finally {
+            running.remove(jobId);
+        }
+
+        ImportJob done = jobRepo.findById(jobId).orElseThrow();
+        log.info("Імпорт #{}: {} — {} рядків імпортовано, {} відхилено",
+                jobId, done.getStatus(), done.getRowsImported(), done.getRowsRejected());
+        return done;
+    }
+
+    /**
+     * @return опис помилки, що зупинила імпорт, або null, якщо все пройшло
+     */
+    private String process(ImportJob job, Path csv) {
+        Set<Integer> committed = new HashSet<>(jdbc.queryForList(
+                "select chunk_no from import_chunk where job_id = ?", Integer.class, job.getId()));
+        var caches = new Caches(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>();
+
+        ExecutorService workers = Executors.newFixedThreadPool(props.getWorkers(),
+                new CustomizableThreadFactory("import-" + job.getId() + "-"));
+        // не більше двох чанків у черзі на воркера — читання не випереджає запис
+        Semaphore backlog = new Semaphore(props.getWorkers() * 2);
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            int[] columns = header(reader.next());
+            List<RawRow> rows = new ArrayList<>(job.getChunkSize());
+            int chunkNo = 0;
+            List<String> record;
+            while ((record = reader.next()) != null && !failed.get()) {
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+                rows.add(new RawRow(reader.line(), record));
+                if (rows.size() == job.getChunkSize()) {
+                    submitChunk(job, chunkNo++, rows, columns, committed, caches, failed, backlog, workers, futures);
+                    rows = new ArrayList<>(job.getChunkSize());
+                }
+            }
+            if (!rows.isEmpty() && !failed.get()) {
+                submitChunk(job, chunkNo, rows, columns, committed, caches, failed, backlog, workers, futures);
+            }
+
+            for (Future<?> f : futures) f.get();
+            return failed.get() ? lastError(job.getId()) : null;
+        } catch (ExecutionException e) {
+            return describe(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Імпорт перервано";
+        } catch (IOException | RuntimeException e) {
+            return describe(e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void submitChunk(ImportJob job, int chunkNo, List<RawRow> rows, int[] columns, Set<Integer> committed,
+                             Caches caches, AtomicBoolean failed, Semaphore backlog,
+                             ExecutorService workers, List<Future<?>> futures) throws InterruptedException {
+        if (committed.contains(chunkNo)) return;
+        backlog.acquire();
+        // воркери пишуть у школу (і шард) того, хто запустив імпорт
+        futures.add(workers.submit(TenantContext.wrap(() -> {
+            try {
+                if (!failed.get()) importChunk(job.getId(), chunkNo, rows, columns, caches);
+            } catch (RuntimeException e) {
+                failed.set(true);
+                jdbc.update("update import_job set last_error = ? where id = ?",
+                        truncate("Чанк " + chunkNo + ": " + describe(e), 1000), job.getId());
+            } finally {
+                backlog.release();
+            }
+        })));
+    }
+
+    private void importChunk(Long jobId, int chunkNo, List<RawRow> rows, int[] columns, Caches caches) {
+        List<ParsedRow> parsed = new ArrayList<>(rows.size());
+        List<ImportRowError> rejected = new ArrayList<>();
+        for (RawRow raw : rows) {
+            try {
+                parsed.add(parse(raw, columns));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                rejected.add(new ImportRowError(raw.line(), truncate(e.getMessage(), 500)));
+            }
+        }
+
+        Map<LessonKey, Long> lessonIds = resolveLessons(parsed, caches.lessons());
+        Map<String, Long> studentIds = resolveStudents(parsed, caches.students());
+        long school = TenantContext.requireSchool();
+
+        tx.executeWithoutResult(status -> {
+            if (!parsed.isEmpty()) {
+                jdbc.batchUpdate(INSERT_MARK, parsed, parsed.size(), (ps, r) -> {
+                    ps.setLong(1, school);
+                    ps.setLong(2, lessonIds.get(r.lesson()));
+                    ps.setLong(3, studentIds.get(r.studentName()));
+                    ps.setString(4, r.studentName());
+                    if (r.grade() != null) ps.setInt(5, r.grade()); else ps.setNull(5, Types.INTEGER);
+                    ps.setBoolean(6, r.present());
+                    ps.setTimestamp(7, Timestamp.valueOf(r.updatedAt()));
+                });
+                // rollup-и — в тій самій транзакції, що й чанк: повтор після збою не додасть дельту вдруге
+                stats.applyDaily(dailyDeltas(school, parsed));
+            }
+            if (!rejected.isEmpty()) {
+                jdbc.batchUpdate("insert into import_error (job_id, line_no, message) values (?, ?, ?)",
+                        rejected, rejected.size(), (ps, e) -> {
+                            ps.setLong(1, jobId);
+                            ps.setLong(2, e.line());
+                            ps.setString(3, e.message());
+                        });
+            }
+            jdbc.update("insert into import_chunk (job_id, chunk_no) values (?, ?)", jobId, chunkNo);
+            jdbc.update("update import_job set rows_imported = rows_imported + ?, rows_rejected = rows_rejected + ? where id = ?",
+                    parsed.size(), rejected.size(), jobId);
+        });
+
+        if (!rejected.isEmpty()) {
+            Long total = jdbc.queryForObject("select rows_rejected from import_job where id = ?", Long.class, jobId);
+            if (total != null && total > props.getMaxErrors()) {
+                throw new IllegalStateException("Забагато відхилених рядків: " + total);
+            }
+        }
+    }
+
+    /**
+     * Повертає id занять для всіх ключів чанка. Відсутні в кеші шукаються одним запитом,
+     * а ненайдені створюються в окремій короткій транзакції — під замком, щоб паралельні воркери
+     * не створили дублікати одного заняття.
+     */
+    private Map<LessonKey, Long> resolveLessons(List<ParsedRow> rows, Map<LessonKey, Long> cache) {
+        Set<LessonKey> keys = new HashSet<>();
+        for (ParsedRow r : rows) keys.add(r.lesson());
+
+        Map<LessonKey, Long> result = new HashMap<>();
+        Set<LessonKey> missing = new HashSet<>();
+        for (LessonKey k : keys) {
+            Long id = cache.get(k);
+            if (id != null) result.put(k, id); else missing.add(k);
+        }
+        if (missing.isEmpty()) return result;
+
+        synchronized (cache) {
+            missing.removeIf(k -> {
+                Long id = cache.get(k);
+                if (id != null) result.put(k, id);
+                return id != null;
+            });
+            if (missing.isEmpty()) return result;
+
+            newTx.executeWithoutResult(status -> {
+                findExistingLessons(missing).forEach((k, id) -> {
+                    cache.put(k, id);
+                    result.put(k, id);
+                    missing.remove(k);
+                });
+                for (LessonKey k : missing) {
+                    long id = insertLesson(k);
+                    cache.put(k, id);
+                    result.put(k, id);
+                }
+            });
+        }
+        return result;
+    }
+
+    private Map<LessonKey, Long> findExistingLessons(Set<LessonKey> keys) {
+        Set<LocalDate> dates = new HashSet<>();
+        Set<String> subjects = new HashSet<>();
+        for (LessonKey k : keys) {
+            dates.add(k.date());
+            subjects.add(k.subject());
+        }
+        var params = new MapSqlParameterSource()
+                .addValue("dates", dates.stream().map(Date::valueOf).toList())
+                .addValue("subjects", subjects)
+                .addValue("school", TenantContext.requireSchool());
+
+        Map<LessonKey, Long> found = new HashMap<>();
+        namedJdbc.query("select id, lesson_date, subject, topic from lesson "
+                        + "where school_id = :school and lesson_date in (:dates) and subject in (:subjects) "
+                        + "and deleted_at is null",
+                params, rs -> {
+                    LessonKey k = new LessonKey(rs.getDate("lesson_date").toLocalDate(),
+                            rs.getString("subject"), rs.getString("topic"));
+                    if (keys.contains(k)) found.putIfAbsent(k, rs.getLong("id"));
+                });
+        return found;
+    }
+
+    /**
+     * Повертає id учнів чанка. Відсутні в кеші шукаються одним запитом, нові вставляються upsert-ом
+     * в окремій короткій транзакції. Замок не потрібен: дублікати між воркерами відсікає унікальний
+     * ключ (school_id, name), а сортування імен дає всім воркерам однаковий порядок блокувань.
+     */
+    private Map<String, Long> resolveStudents(List<ParsedRow> rows, Map<String, Long> cache) {
+        Map<String, Long> result = new HashMap<>();
+        Set<String> missing = new TreeSet<>();
+        for (ParsedRow r : rows) {
+            Long id = cache.get(r.studentName());
+            if (id != null) result.put(r.studentName(), id); else missing.add(r.studentName());
+        }
+        if (missing.isEmpty()) return result;
+
+        Map<String, Long> found = findStudents(missing);
+        List<String> absent = missing.stream().filter(name -> !found.containsKey(name)).toList();
+        if (!absent.isEmpty()) {
+            // upsert першим у транзакції: знімок береться вже після нього, тож повторне читання бачить
+            // і своїх нових учнів, і тих, кого між читаннями закомітив інший воркер (REPEATABLE READ)
+            newTx.executeWithoutResult(status -> {
+                long school = TenantContext.requireSchool();
+                jdbc.batchUpdate(UPSERT_STUDENT, absent, absent.size(), (ps, name) -> {
+                    ps.setLong(1, school);
+                    ps.setString(2, name);
+                });
+                found.putAll(findStudents(absent));
+            });
+        }
+        for (String name : missing) {
+            Long id = found.get(name);
+            cache.put(name, id);
+            result.put(name, id);
+        }
+        return result;
+    }
+
+    // порівняння без регістру: так імена збігаються з БД і під регістронезалежним collation MySQL
+    private Map<String, Long> findStudents(Collection<String> names) {
+        var params = new MapSqlParameterSource()
+                .addValue("names", names)
+                .addValue("school", TenantContext.requireSchool());
+        Map<String, Long> found = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        namedJdbc.query("select id, name from student where school_id = :school and name in (:names)",
+                params, rs -> { found.put(rs.getString("name"), rs.getLong("id")); });
+        return found;
+    }
+
+    private long insertLesson(LessonKey k) {
+        long school = TenantContext.requireSchool();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "insert into lesson (school_id, subject, topic, lesson_date) values (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, school);
+            ps.setString(2, k.subject());
+            ps.setString(3, k.topic());
+            ps.setDate(4, Date.valueOf(k.date()));
+            return ps;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    // ===== ПАРСИНГ =====
+
+    private static int[] header(List<String> header) {
+        if (header == null) throw new IllegalArgumentException("Порожній файл");
+        int[] columns = new int[COLUMNS.size()];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < header.size(); i++) {
+            int idx = COLUMNS.indexOf(header.get(i).trim().toLowerCase());
+            if (idx >= 0) columns[idx] = i;
+        }
+        for (String required : List.of("lesson_date", "subject", "student_name")) {
+            if (columns[COLUMNS.indexOf(required)] < 0) {
+                throw new IllegalArgumentException("У заголовку немає колонки " + required);
+            }
+        }
+        return columns;
+    }
+
+    private static ParsedRow parse(RawRow raw, int[] columns) {
+        LocalDate date = LocalDate.parse(required(raw, columns, 0));
+        String subject = required(raw, columns, 1);
+        String topic = field(raw, columns, 2);
+        String student = required(raw, columns, 3);
+
+        String presentRaw = field(raw, columns, 4);
+        boolean present = presentRaw == null || parseBoolean(presentRaw);
+
+        String gradeRaw = field(raw, columns, 5);
+        Integer grade = null;
+        if (gradeRaw != null) {
+            try {
+                grade = Integer.valueOf(gradeRaw);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некоректна оцінка: " + gradeRaw);
+            }
+            if (grade < 0 || grade > 12) throw new IllegalArgumentException("Оцінка поза межами 0–12: " + grade);
+        }
+        if (present && grade == null) grade = 0; // як у JournalService.addMark
+
+        String updatedRaw = field(raw, columns, 6);
+        LocalDateTime updatedAt = (updatedRaw != null) ? LocalDateTime.parse(updatedRaw) : date.atStartOfDay();
+
+        return new ParsedRow(new LessonKey(date, subject, topic), student, grade, present, updatedAt);
+    }
+
+    private static String required(RawRow raw, int[] columns, int column) {
+        String v = field(raw, columns, column);
+        if (v == null) throw new IllegalArgumentException("Порожнє поле " + COLUMNS.get(column));
+        return v;
+    }
+
+    private static String field(RawRow raw, int[] columns, int column) {
+        int idx = columns[column];
+        if (idx < 0 || idx >= raw.fields().size()) return null;
+        String v = raw.fields().get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    private static boolean parseBoolean(String v) {
+        return switch (v.toLowerCase()) {
+            case "true", "1", "yes", "+", "так" -> true;
+            case "false", "0", "no", "-", "ні" -> false;
+            default -> throw new IllegalArgumentException("Некоректне значення present: " + v);
+        };
+    }
+
+    // ===== СТАН =====
+
+    @Override
+    public Optional<ImportJob> getJob(Long jobId) {
+        return jobRepo.findById(jobId);
+    }
+
+    @Override
+    public List<ImportRowError> getErrors(Long jobId, int limit) {
+        int safe = Math.max(1, Math.min(limit, 1000));
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select line_no, message from import_error where job_id = ? order by line_no");
+            ps.setLong(1, jobId);
+            ps.setMaxRows(safe);
+            return ps;
+        }, (rs, i) -> new ImportRowError(rs.getLong(1), rs.getString(2)));
+    }
+
+    private String lastError(Long jobId) {
+        String error = jdbc.queryForObject("select last_error from import_job where id = ?", String.class, jobId);
+        return (error != null) ? error : "Імпорт зупинено";
+    }
+
+    private static String describe(Throwable e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    private static String truncate(String s, int max) {
+        return (s == null || s.length() <= max) ? s : s.substring(0, max);
+    }
+
+    private record RawRow(long line, List<String> fields) {
+    }
+
+    private static List<DailyMarkTotals> dailyDeltas(long school, List<ParsedRow> rows) {
+        Map<DayKey, long[]> byDay = new HashMap<>();
+        for (ParsedRow r : rows) {
+            long[] acc = byDay.computeIfAbsent(new DayKey(r.lesson().date(), r.lesson().subject()), k -> new long[4]);
+            boolean graded = r.grade() != null && r.grade() > 0;
+            acc[0]++;
+            if (r.present()) acc[1]++;
+            if (graded) {
+                acc[2] += r.grade();
+                acc[3]++;
+            }
+        }
+        return byDay.entrySet().stream()
+                .map(e -> new DailyMarkTotals(school, e.getKey().subject(), e.getKey().date(),
+                        e.getValue()[0], e.getValue()[1], e.getValue()[2], e.getValue()[3]))
+                .toList();
+    }
+
+    private record Caches(Map<LessonKey, Long> lessons, Map<String, Long> students) {
+    }
+
+    private record LessonKey(LocalDate date, String subject, String topic) {
+    }
+
+    // ключ денного rollup-а: дата і предмет, без теми
+    private record DayKey(LocalDate date, String subject) {
+    }
+
+    private record ParsedRow(LessonKey lesson, String studentName, Integer grade, boolean present,
+                             LocalDateTime updatedAt) {
+    }
+}
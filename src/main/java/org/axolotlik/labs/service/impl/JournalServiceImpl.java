@@ -1,28 +1,67 @@
 package org.axolotlik.labs.service.impl;
 
+import org.axolotlik.labs.event.ChangeType;
+import org.axolotlik.labs.event.LessonChangedEvent;
+import org.axolotlik.labs.event.MarkChangedEvent;
+import org.axolotlik.labs.model.JournalRow;
 import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.LessonMarksCount;
 import org.axolotlik.labs.model.LessonPage;
 import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.repo.ArchiveRepository;
 import org.axolotlik.labs.repo.LessonRepository;
 import org.axolotlik.labs.repo.MarkRepository;
 import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.service.StatsService;
+import org.axolotlik.labs.service.StudentService;
+import org.axolotlik.labs.service.support.ArchivedReadOnlyException;
+import org.axolotlik.labs.service.support.FanOut;
+import org.axolotlik.labs.service.support.RowCursor;
+import org.axolotlik.labs.service.support.SingleFlight;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class JournalServiceImpl implements JournalService {
 
+    // максимальний розмір IN-списку в одному запиті
+    private static final int IN_CHUNK = 500;
+
     private final LessonRepository lessonRepo;
     private final MarkRepository markRepo;
+    private final OutboxWriter outbox;
+    private final StatsService stats;
+    private final ArchiveRepository archive;
+    private final StudentService students;
+
+    // одночасні читання одного уроку ділять один запит до БД
+    // ключ включає школу: id уроків на різних шардах перетинаються;
+    // спільний результат кожен викликач отримує копією, тож чужі зміни його не зачіпають
+    private final SingleFlight<LoadKey, Optional<Lesson>> lessonLoads;
+    private final SingleFlight<LoadKey, List<Mark>> marksLoads;
 
-    public JournalServiceImpl(LessonRepository lessonRepo, MarkRepository markRepo) {
+    public JournalServiceImpl(LessonRepository lessonRepo, MarkRepository markRepo, OutboxWriter outbox,
+                              StatsService stats, ArchiveRepository archive, StudentService students,
+                              @Value("${gradebook.single-flight.timeout:5s}") Duration singleFlightTimeout) {
         this.lessonRepo = lessonRepo;
         this.markRepo = markRepo;
+        this.outbox = outbox;
+        this.stats = stats;
+        this.archive = archive;
+        this.students = students;
+        this.lessonLoads = new SingleFlight<>(singleFlightTimeout);
+        this.marksLoads = new SingleFlight<>(singleFlightTimeout);
     }
 
     // ===== LESSONS =====
@@ -30,17 +69,59 @@ public class JournalServiceImpl implements JournalService {
     @Override
     public List<Lesson> getAllLessons() {
         var lessons = lessonRepo.findAll();
+        var marks = groupMarksByLesson(lessons.stream().map(Lesson::getId).toList());
         for (var l : lessons) {
-            l.setMarks(markRepo.findByLessonId(l.getId()));
+            l.setMarks(marks.getOrDefault(l.getId(), new ArrayList<>()));
         }
         return lessons;
     }
 
+    // у транзакції не зливаємося з чужими завантаженнями: викликач отримує сутності свого контексту,
+    // а не рядки, прочитані поза транзакцією, і не віддає іншим те, що сам змінить
     @Override
     public Optional<Lesson> getLessonById(Long id) {
-        var opt = lessonRepo.findById(id);
-        opt.ifPresent(l -> l.setMarks(markRepo.findByLessonId(l.getId())));
-        return opt;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadLesson(id);
+        }
+        return lessonLoads.load(LoadKey.of(id), () -> loadLesson(id)).map(JournalServiceImpl::copyOf);
+    }
+
+    private Optional<Lesson> loadLesson(Long id) {
+        return loadLessonWithMarks(id).or(() -> loadArchivedLesson(id));
+    }
+
+    // холодний шлях: урок, якого вже немає в живих таблицях, читаємо з архіву
+    private Optional<Lesson> loadArchivedLesson(Long id) {
+        return archive.findLessons(List.of(id)).stream().findFirst().map(l -> {
+            l.setMarks(archive.findMarksByLessonIds(List.of(id)));
+            return l;
+        });
+    }
+
+    // урок і його відмітки — незалежні запити, тож ідуть паралельно;
+    // всередині транзакції лишаємося в її потоці (інакше запити її не побачать)
+    private Optional<Lesson> loadLessonWithMarks(Long id) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            var opt = lessonRepo.findById(id);
+            opt.ifPresent(l -> l.setMarks(markRepo.findByLessonId(id)));
+            return opt;
+        }
+        try (var scope = new FanOut()) {
+            var lesson = scope.fork(() -> lessonRepo.findById(id));
+            var marks = scope.fork(() -> markRepo.findByLessonId(id));
+            scope.join();
+            lesson.get().ifPresent(l -> l.setMarks(marks.get()));
+            return lesson.get();
+        }
+    }
+
+    // транзакція тримає курсор відкритим, поки шаблон читає рядки; архівні уроки в журнал не входять
+    @Override
+    @Transactional(readOnly = true)
+    public void streamJournal(Consumer<RowCursor<JournalRow>> body) {
+        try (var rows = RowCursor.lazy(lessonRepo::streamJournal)) {
+            body.accept(rows);
+        }
     }
 
     @Override
@@ -50,24 +131,44 @@ public class JournalServiceImpl implements JournalService {
         l.setSubject(subject);
         l.setTopic(topic);
         l.setDate(LocalDate.now());
-        return lessonRepo.save(l);
+        Lesson saved = lessonRepo.save(l);
+        outbox.append(changed(ChangeType.CREATED, saved));
+        return saved;
     }
 
     @Override
     @Transactional
     public void updateLesson(Long lessonId, String newSubject, String newTopic) {
         var opt = lessonRepo.findById(lessonId);
-        if (opt.isEmpty()) return;
+        if (opt.isEmpty()) {
+            rejectIfArchivedLesson(lessonId);
+            return;
+        }
         Lesson l = opt.get();
+        boolean moved = newSubject != null && !newSubject.equals(l.getSubject());
+        if (moved) stats.applyLesson(lessonId, -1);
         if (newSubject != null) l.setSubject(newSubject);
         if (newTopic != null) l.setTopic(newTopic);
         lessonRepo.save(l);
+        if (moved) stats.applyLesson(lessonId, +1);
+        outbox.append(changed(ChangeType.UPDATED, l));
+        forgetAfterCommit(lessonId);
     }
 
     @Override
     @Transactional
     public void deleteLesson(Long lessonId) {
-        lessonRepo.deleteById(lessonId);
+        var opt = lessonRepo.findById(lessonId);
+        if (opt.isEmpty()) {
+            rejectIfArchivedLesson(lessonId);
+            return;
+        }
+        Lesson l = opt.get();
+        // відмітки лишаються на місці до purge — видалення уроку не тримає блокувань на mark
+        stats.applyLesson(lessonId, -1);
+        lessonRepo.softDelete(lessonId, LocalDateTime.now());
+        outbox.append(changed(ChangeType.DELETED, l));
+        forgetAfterCommit(lessonId);
     }
 
     @Override
@@ -99,27 +200,77 @@ public class JournalServiceImpl implements JournalService {
     @Transactional
     public Optional<Lesson> patchLesson(Long id, Map<String, Object> updates) {
         var opt = lessonRepo.findById(id);
-        if (opt.isEmpty()) return Optional.empty();
+        if (opt.isEmpty()) {
+            rejectIfArchivedLesson(id);
+            return Optional.empty();
+        }
         Lesson l = opt.get();
 
-        if (updates.containsKey("subject") && updates.get("subject") instanceof String s) l.setSubject(s);
+        String newSubject = (updates.get("subject") instanceof String s) ? s : l.getSubject();
+        LocalDate newDate = (updates.get("date") instanceof String s) ? LocalDate.parse(s) : l.getDate();
+        // предмет або дата визначають, у який rollup потрапляють відмітки уроку
+        boolean moved = !Objects.equals(newSubject, l.getSubject()) || !Objects.equals(newDate, l.getDate());
+        if (moved) stats.applyLesson(id, -1);
+
+        l.setSubject(newSubject);
         if (updates.containsKey("topic") && updates.get("topic") instanceof String s)   l.setTopic(s);
-        if (updates.containsKey("date") && updates.get("date") instanceof String s)    l.setDate(LocalDate.parse(s));
+        l.setDate(newDate);
 
         lessonRepo.save(l);
+        if (moved) stats.applyLesson(id, +1);
+        outbox.append(changed(ChangeType.UPDATED, l));
+        forgetAfterCommit(id);
         return Optional.of(l);
     }
 
+    @Override
+    public Map<Long, Lesson> getLessonsByIds(Collection<Long> ids) {
+        Map<Long, Lesson> found = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (Lesson l : lessonRepo.findByIdIn(chunk)) found.put(l.getId(), l);
+        }
+        Map<Long, List<Mark>> marks = groupMarksByLesson(found.keySet());
+        for (Lesson l : found.values()) {
+            l.setMarks(marks.getOrDefault(l.getId(), new ArrayList<>()));
+        }
+
+        // чого немає серед живих — шукаємо в архіві
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(found.keySet());
+        for (List<Long> chunk : chunks(missing)) {
+            Map<Long, Lesson> archived = new HashMap<>();
+            for (Lesson l : archive.findLessons(chunk)) {
+                l.setMarks(new ArrayList<>());
+                archived.put(l.getId(), l);
+            }
+            for (Mark m : archive.findMarksByLessonIds(archived.keySet())) {
+                archived.get(m.getLessonId()).getMarks().add(m);
+            }
+            found.putAll(archived);
+        }
+        return found;
+    }
+
     // ===== MARKS =====
 
     @Override
     public List<Mark> getMarksForLesson(Long lessonId) {
-        return markRepo.findByLessonId(lessonId);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadMarks(lessonId);
+        }
+        return copyOf(marksLoads.load(LoadKey.of(lessonId), () -> loadMarks(lessonId)));
+    }
+
+    private List<Mark> loadMarks(Long lessonId) {
+        var live = markRepo.findByLessonId(lessonId);
+        // урок архівується разом з усіма відмітками, тож архів питаємо лише коли живих немає
+        return live.isEmpty() ? archive.findMarksByLessonIds(List.of(lessonId)) : live;
     }
 
     @Override
     public Mark findMarkById(Long lessonId, Long markId) {
         return markRepo.findById(markId)
+                .or(() -> archive.findMark(markId))
                 .filter(m -> Objects.equals(m.getLessonId(), lessonId))
                 .orElse(null);
     }
@@ -127,26 +278,66 @@ public class JournalServiceImpl implements JournalService {
     @Override
     @Transactional
     public void addMark(Long lessonId, Mark mark) {
+        Optional<Lesson> lesson = lessonRepo.findById(lessonId);
+        if (lesson.isEmpty()) rejectIfArchivedLesson(lessonId);
+
         if (mark.getTimestamp() == null) mark.setTimestamp(LocalDateTime.now());
         if (mark.isPresent() && mark.getGrade() == null) mark.setGrade(0);
         mark.setLessonId(lessonId);
+        mark.setStudentId(students.resolveId(mark.getStudentName()));
         Mark saved = markRepo.save(mark);
         mark.setId(saved.getId());
+        lesson.ifPresent(l -> stats.applyMark(l.getSubject(), l.getDate(), saved, +1));
+        outbox.append(changed(ChangeType.CREATED, saved));
+        forgetAfterCommit(lessonId);
     }
 
     @Override
     @Transactional
     public void updateMark(Long lessonId, Long markId, Mark updatedMark) {
-        updatedMark.setId(markId);
-        updatedMark.setLessonId(lessonId);
-        updatedMark.setTimestamp(LocalDateTime.now());
-        markRepo.save(updatedMark);
+        // оновлюємо лише живу відмітку і лише її поля: merge переданого об'єкта
+        // вставив би видалений рядок наново
+        var opt = markRepo.findById(markId);
+        if (opt.isEmpty()) {
+            rejectIfArchivedMark(markId);
+            return;
+        }
+        Mark m = opt.get();
+        Mark before = Mark.builder().schoolId(m.getSchoolId()).present(m.isPresent()).grade(m.getGrade()).build();
+        // відмітку можна перенести в інший урок: стару версію знімаємо з rollup-ів її уроку, нову — додаємо до цільового
+        Long fromLessonId = m.getLessonId();
+        Optional<Lesson> from = lessonRepo.findById(fromLessonId);
+        Optional<Lesson> to = lessonId.equals(fromLessonId) ? from : lessonRepo.findById(lessonId);
+        if (to.isEmpty()) rejectIfArchivedLesson(lessonId);
+
+        m.setLessonId(lessonId);
+        if (!Objects.equals(m.getStudentName(), updatedMark.getStudentName())) {
+            m.setStudentId(students.resolveId(updatedMark.getStudentName()));
+        }
+        m.setStudentName(updatedMark.getStudentName());
+        m.setGrade(updatedMark.getGrade());
+        m.setPresent(updatedMark.isPresent());
+        m.setTimestamp(LocalDateTime.now());
+        markRepo.save(m);
+
+        from.ifPresent(l -> stats.applyMark(l.getSubject(), l.getDate(), before, -1));
+        to.ifPresent(l -> stats.applyMark(l.getSubject(), l.getDate(), m, +1));
+        outbox.append(changed(ChangeType.UPDATED, m));
+        forgetAfterCommit(lessonId);
+        if (!lessonId.equals(fromLessonId)) forgetAfterCommit(fromLessonId);
     }
 
     @Override
     @Transactional
     public void deleteMark(Long lessonId, Long markId) {
-        markRepo.deleteById(markId);
+        var opt = markRepo.findById(markId);
+        if (opt.isEmpty()) rejectIfArchivedMark(markId);
+        opt.ifPresent(m -> {
+            lessonRepo.findById(m.getLessonId()).ifPresent(l -> stats.applyMark(l.getSubject(), l.getDate(), m, -1));
+            markRepo.softDelete(m.getId(), LocalDateTime.now());
+            outbox.append(changed(ChangeType.DELETED, m));
+        });
+        forgetAfterCommit(lessonId);
     }
 
     @Override
@@ -155,6 +346,107 @@ public class JournalServiceImpl implements JournalService {
         return markRepo.findAllByOrderByTimestampDesc(PageRequest.of(0, safe)).getContent();
     }
 
+    @Override
+    public Map<Long, List<Mark>> getMarksByLessonIds(Collection<Long> lessonIds) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunks(lessonIds)) existing.addAll(lessonRepo.findExistingIds(chunk));
+        Map<Long, List<Mark>> marks = groupMarksByLesson(existing);
+        for (Long id : existing) marks.putIfAbsent(id, new ArrayList<>());
+
+        Set<Long> missing = new HashSet<>(lessonIds);
+        missing.removeAll(existing);
+        for (List<Long> chunk : chunks(missing)) {
+            List<Long> archived = archive.findLessons(chunk).stream().map(Lesson::getId).toList();
+            for (Long id : archived) marks.put(id, new ArrayList<>());
+            for (Mark m : archive.findMarksByLessonIds(archived)) marks.get(m.getLessonId()).add(m);
+        }
+        return marks;
+    }
+
+    @Override
+    public Map<Long, Long> countMarksByLessonIds(Collection<Long> lessonIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (List<Long> chunk : chunks(lessonIds)) {
+            for (Long id : chunk) counts.put(id, 0L);
+            for (LessonMarksCount c : markRepo.countByLessonIdIn(chunk)) counts.put(c.getLessonId(), c.getMarks());
+        }
+        return counts;
+    }
+
+    private Map<Long, List<Mark>> groupMarksByLesson(Collection<Long> lessonIds) {
+        Map<Long, List<Mark>> byLesson = new HashMap<>();
+        for (List<Long> chunk : chunks(lessonIds)) {
+            for (Mark m : markRepo.findByLessonIdIn(chunk)) {
+                byLesson.computeIfAbsent(m.getLessonId(), k -> new ArrayList<>()).add(m);
+            }
+        }
+        return byLesson;
+    }
+
+    // архів лише для читання: зміна перенесеного рядка — помилка, а не тихий no-op
+    private void rejectIfArchivedLesson(Long lessonId) {
+        if (archive.isArchivedLesson(lessonId)) {
+            throw new ArchivedReadOnlyException("Заняття " + lessonId + " перенесено в архів і не змінюється");
+        }
+    }
+
+    private void rejectIfArchivedMark(Long markId) {
+        if (archive.isArchivedMark(markId)) {
+            throw new ArchivedReadOnlyException("Відмітку " + markId + " перенесено в архів і не змінюється");
+        }
+    }
+
+    // після коміту нові читання мають іти в БД, а не приєднуватися до завантаження зі старими даними
+    private void forgetAfterCommit(Long lessonId) {
+        LoadKey key = LoadKey.of(lessonId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lessonLoads.forget(key);
+            marksLoads.forget(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lessonLoads.forget(key);
+                marksLoads.forget(key);
+            }
+        });
+    }
+
+    private record LoadKey(Long school, Long lessonId) {
+        static LoadKey of(Long lessonId) {
+            return new LoadKey(TenantContext.school(), lessonId);
+        }
+    }
+
+    // власна копія для викликача single-flight: поля ті самі, списки й об'єкти — нові
+    private static Lesson copyOf(Lesson l) {
+        return l.toBuilder().marks(l.getMarks() == null ? null : copyOf(l.getMarks())).build();
+    }
+
+    private static List<Mark> copyOf(List<Mark> marks) {
+        List<Mark> copies = new ArrayList<>(marks.size());
+        for (Mark m : marks) copies.add(m.toBuilder().lesson(null).build());
+        return copies;
+    }
+
+    private static MarkChangedEvent changed(ChangeType type, Mark m) {
+        return new MarkChangedEvent(type, m.getId(), m.getLessonId(), m.getStudentName(), m.getGrade(), m.isPresent());
+    }
+
+    private static LessonChangedEvent changed(ChangeType type, Lesson l) {
+        return new LessonChangedEvent(type, l.getId(), l.getSubject(), l.getTopic(), l.getDate());
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<List<Long>> result = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += IN_CHUNK) {
+            result.add(distinct.subList(i, Math.min(i + IN_CHUNK, distinct.size())));
+        }
+        return result;
+    }
+
     // ===== НОВЕ: використання @Query / @NamedQuery / derived =====
 
     @Override
@@ -0,0 +1,71 @@
+package org.axolotlik.labs.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.config.ArchiveProperties;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Онлайн-перенесення старих уроків з відмітками в lesson_archive / mark_archive невеликими пачками,
+ * щоб живі таблиці та їхні індекси лишалися розміром з поточний семестр. Кожна пачка — окрема
+ * коротка транзакція; між пачками пауза, щоб не конкурувати з записами вчителів.
+ */
+@Slf4j
+@Component
+public class LessonArchiver {
+
+    private final ArchiveRepository archive;
+    private final TransactionTemplate tx;
+    private final ArchiveProperties props;
+    private final Shards shards;
+
+    public LessonArchiver(ArchiveRepository archive, TransactionTemplate tx, ArchiveProperties props, Shards shards) {
+        this.archive = archive;
+        this.tx = tx;
+        this.props = props;
+        this.shards = shards;
+    }
+
+    @Scheduled(fixedDelayString = "${gradebook.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!props.isEnabled()) return;
+        LocalDate before = LocalDate.now().minus(props.getOlderThan());
+        shards.forEach(shard -> archiveShard(shard, before));
+    }
+
+    private void archiveShard(String shard, LocalDate before) {
+        long lessons = 0, marks = 0;
+        List<Long> ids;
+        int batches = 0;
+        do {
+            ids = archive.findArchivableLessonIds(before, props.getBatchSize());
+            if (ids.isEmpty()) break;
+
+            List<Long> batch = ids;
+            Integer moved = tx.execute(s -> archive.moveLessons(batch));
+            marks += (moved != null) ? moved : 0;
+            lessons += ids.size();
+            if (!pause()) break;
+        } while (ids.size() == props.getBatchSize() && ++batches < props.getMaxBatchesPerRun());
+
+        if (lessons > 0) {
+            log.info("Архів шарду {}: перенесено {} уроків і {} відміток старших за {}", shard, lessons, marks, before);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(props.getPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.axolotlik.labs.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.service.NotificationSink;
+
+@Slf4j
+public class LogNotificationSink implements NotificationSink {
+    @Override
+    public void deliver(String recipient, String text) {
+        log.info("NOTIFICATION [{}]: {}", recipient, text);
+    }
+}
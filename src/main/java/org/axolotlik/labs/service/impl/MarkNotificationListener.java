@@ -0,0 +1,37 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.event.ChangeType;
+import org.axolotlik.labs.event.MarkChangedEvent;
+import org.axolotlik.labs.service.NotificationService;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Сповіщає студента про нову або змінену відмітку. Події приходять з outbox, тобто вже після коміту.
+ */
+@Component
+public class MarkNotificationListener {
+
+    private final NotificationService notificationService;
+
+    public MarkNotificationListener(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @EventListener
+    public void onMarkChanged(MarkChangedEvent e) {
+        // відмітка без імені учня — сповіщати нікого
+        if (e.type() == ChangeType.DELETED || e.studentName() == null || e.studentName().isBlank()) return;
+        notificationService.notify(e.studentName(), describe(e));
+    }
+
+    private static String describe(MarkChangedEvent e) {
+        String lesson = " (заняття #" + e.lessonId() + ")";
+        if (!e.present()) return "Відмітка про відсутність" + lesson;
+        boolean graded = e.grade() != null && e.grade() > 0;
+        if (e.type() == ChangeType.CREATED) {
+            return (graded ? "Нова оцінка: " + e.grade() : "Відмітка про присутність") + lesson;
+        }
+        return (graded ? "Оцінку змінено: " + e.grade() : "Відмітку змінено") + lesson;
+    }
+}
@@ -1,11 +1,150 @@
 package org.axolotlik.labs.service.impl;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.config.NotificationProperties;
 import org.axolotlik.labs.service.NotificationService;
+import org.axolotlik.labs.service.NotificationSink;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Обмежена черга + пул воркерів. Черга поділена на партиції за адресатом, по одній на воркера: усі повідомлення
+ * одного адресата потрапляють до того самого воркера, тож за одне вікно linger він отримує рівно один дайджест.
+ * Воркер забирає пачку повідомлень своєї партиції, групує їх за адресатом і кожному адресату доставляє
+ * одне повідомлення (або дайджест, якщо їх кілька) у всі sink-и.
+ */
+@Slf4j
 @Component
 public class NotificationServiceImpl implements NotificationService {
-    public void notify(String message) {
-        System.out.println("NOTIFICATION: " + message);
+
+    private final NotificationProperties props;
+    private final List<NotificationSink> sinks;
+    private final List<BlockingQueue<Notification>> partitions;
+    private final ExecutorService workers;
+
+    private final Counter dropped;
+    private final Counter delivered;
+    private final Timer latency;
+
+    private volatile boolean running = true;
+
+    public NotificationServiceImpl(NotificationProperties props, List<NotificationSink> sinks, MeterRegistry registry) {
+        this.props = props;
+        this.sinks = sinks;
+        // queue-capacity — на весь конвеєр, ділиться між партиціями порівну
+        int capacity = Math.max(1, props.getQueueCapacity() / props.getWorkers());
+        List<BlockingQueue<Notification>> queues = new ArrayList<>(props.getWorkers());
+        for (int i = 0; i < props.getWorkers(); i++) queues.add(new ArrayBlockingQueue<>(capacity));
+        this.partitions = List.copyOf(queues);
+        this.workers = Executors.newFixedThreadPool(props.getWorkers(), new CustomizableThreadFactory("notify-"));
+
+        Gauge.builder("gradebook.notifications.queue.depth", this, NotificationServiceImpl::queueDepth)
+                .register(registry);
+        this.dropped = Counter.builder("gradebook.notifications.dropped").register(registry);
+        this.delivered = Counter.builder("gradebook.notifications.delivered").register(registry);
+        this.latency = Timer.builder("gradebook.notifications.delivery.latency").register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (BlockingQueue<Notification> partition : partitions) {
+            workers.submit(() -> drainLoop(partition));
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Сповіщення: не доставлено {} повідомлень при зупинці", queueDepth());
+            workers.shutdownNow();
+        }
+    }
+
+    @Override
+    public void notify(String recipient, String message) {
+        // без адресата — системне повідомлення; null не повинен валити виклик (його ключ партиції — hashCode)
+        if (recipient == null || recipient.isBlank()) recipient = SYSTEM_RECIPIENT;
+        Notification n = new Notification(recipient, message, System.nanoTime());
+        BlockingQueue<Notification> queue = partitions.get(Math.floorMod(recipient.hashCode(), partitions.size()));
+        if (queue.offer(n)) return;
+
+        switch (props.getOverflowPolicy()) {
+            case DROP_NEWEST -> dropped.increment();
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) dropped.increment();
+                if (!queue.offer(n)) dropped.increment();
+            }
+            case CALLER_RUNS -> deliver(List.of(n));
+        }
+    }
+
+    int queueDepth() {
+        int depth = 0;
+        for (BlockingQueue<Notification> partition : partitions) depth += partition.size();
+        return depth;
+    }
+
+    private void drainLoop(BlockingQueue<Notification> queue) {
+        long lingerMs = props.getLinger().toMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                if (lingerMs > 0 && running) Thread.sleep(lingerMs);
+
+                List<Notification> batch = new ArrayList<>();
+                batch.add(first);
+                queue.drainTo(batch, props.getBatchSize() - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Сповіщення: помилка воркера", e);
+            }
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        Map<String, List<Notification>> byRecipient = new LinkedHashMap<>();
+        for (Notification n : batch) {
+            byRecipient.computeIfAbsent(n.recipient(), k -> new ArrayList<>()).add(n);
+        }
+
+        byRecipient.forEach((recipient, list) -> {
+            String text = (list.size() == 1) ? list.get(0).message() : digest(list);
+            for (NotificationSink sink : sinks) {
+                try {
+                    sink.deliver(recipient, text);
+                } catch (RuntimeException e) {
+                    log.error("Сповіщення: sink {} не доставив повідомлення для {}", sink.getClass().getSimpleName(), recipient, e);
+                }
+            }
+            long now = System.nanoTime();
+            for (Notification n : list) {
+                latency.record(now - n.enqueuedAt(), TimeUnit.NANOSECONDS);
+            }
+            delivered.increment(list.size());
+        });
+    }
+
+    private static String digest(List<Notification> list) {
+        StringBuilder sb = new StringBuilder().append(list.size()).append(" нових сповіщень:");
+        for (Notification n : list) sb.append("\n - ").append(n.message());
+        return sb.toString();
+    }
+
+    private record Notification(String recipient, String message, long enqueuedAt) {
     }
-}
\ No newline at end of file
+}
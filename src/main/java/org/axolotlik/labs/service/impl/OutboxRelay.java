@@ -0,0 +1,170 @@
+package org.axolotlik.labs.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.config.OutboxProperties;
+import org.axolotlik.labs.event.DomainEvent;
+import org.axolotlik.labs.event.LessonChangedEvent;
+import org.axolotlik.labs.event.MarkChangedEvent;
+import org.axolotlik.labs.model.OutboxEvent;
+import org.axolotlik.labs.model.OutboxLease;
+import org.axolotlik.labs.repo.OutboxLeaseRepository;
+import org.axolotlik.labs.repo.OutboxRepository;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Доставляє події з outbox підписникам усередині застосунку (звичайні {@code @EventListener}) пачками в порядку id.
+ * Доставка at-least-once: подія позначається доставленою лише після того, як усі слухачі відпрацювали без винятку;
+ * на першій помилці пачка зупиняється і решта чекає наступного проходу.
+ * <p>
+ * На кожному шарді доставляє лише власник оренди {@link OutboxLease} — інакше кожен под розсилав би ті самі події.
+ * Id видається при вставці, а не при коміті, тож перед пропуском в id relay чекає {@code gap-timeout}: подія
+ * з меншим id може ще комітитись. Подію, що падає {@code max-attempts} разів поспіль, relay паркує (dead-letter).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final Map<String, Class<? extends DomainEvent>> EVENT_TYPES = Map.of(
+            MarkChangedEvent.class.getSimpleName(), MarkChangedEvent.class,
+            LessonChangedEvent.class.getSimpleName(), LessonChangedEvent.class
+    );
+
+    private final OutboxRepository repo;
+    private final OutboxLeaseRepository leases;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate tx;
+    private final OutboxProperties props;
+    private final Shards shards;
+    // ідентифікує под в оренді; новий на кожен запуск, тож рестарт чекає, поки стара оренда спливе
+    private final String node = UUID.randomUUID().toString();
+
+    public OutboxRelay(OutboxRepository repo, OutboxLeaseRepository leases, ApplicationEventPublisher publisher,
+                       ObjectMapper mapper, TransactionTemplate tx, OutboxProperties props, Shards shards) {
+        this.repo = repo;
+        this.leases = leases;
+        this.publisher = publisher;
+        this.mapper = mapper;
+        this.tx = tx;
+        this.props = props;
+        this.shards = shards;
+    }
+
+    @Scheduled(fixedDelayString = "${gradebook.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!props.isRelayEnabled()) return;
+        // outbox живе в базі кожного шарду поруч із даними, які його наповнюють
+        shards.forEach(shard -> {
+            // поки пачки повні — є ще що доставляти; оренда продовжується перед кожною пачкою
+            while (acquireLease()) {
+                if (relayBatch() < props.getBatchSize()) break;
+            }
+        });
+    }
+
+    boolean acquireLease() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer taken = tx.execute(s -> leases.acquire(OutboxLease.RELAY, node, now, now.plus(props.getLeaseTtl())));
+        return taken != null && taken == 1;
+    }
+
+    /**
+     * @return кількість доставлених подій; менше за розмір пачки — черга вичерпана, пропуск в id або помилка
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime gapDeadline = now.minus(props.getGapTimeout());
+        Long cursor = leases.findById(OutboxLease.RELAY).map(OutboxLease::getLastEventId).orElse(null);
+        List<OutboxEvent> batch = repo.findByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc(
+                PageRequest.of(0, props.getBatchSize()));
+        List<Long> delivered = new ArrayList<>(batch.size());
+        OutboxEvent failed = null;
+        for (OutboxEvent e : batch) {
+            // свіжий пропуск в id — його транзакція може ще комітитись, тож чекаємо, а не обганяємо її
+            if (cursor != null && e.getId() > cursor + 1 && e.getCreatedAt().isAfter(gapDeadline)) break;
+            try {
+                publisher.publishEvent(deserialize(e));
+            } catch (RuntimeException ex) {
+                failed = countFailure(e, ex, now);
+                break;
+            }
+            if (cursor != null && e.getId() < cursor) {
+                log.warn("Outbox: подія #{} закомітилась пізніше за gap-timeout і доставлена не по порядку", e.getId());
+            }
+            delivered.add(e.getId());
+            cursor = (cursor == null) ? e.getId() : Math.max(cursor, e.getId());
+        }
+        if (failed != null && failed.getParkedAt() != null) {
+            cursor = (cursor == null) ? failed.getId() : Math.max(cursor, failed.getId());
+        }
+        if (delivered.isEmpty() && failed == null) return 0;
+
+        Long lastId = cursor;
+        OutboxEvent failure = failed;
+        tx.executeWithoutResult(s -> {
+            if (!delivered.isEmpty()) repo.markPublished(delivered, now);
+            if (failure != null) {
+                repo.recordFailure(failure.getId(), failure.getAttempts(), failure.getLastError(), failure.getParkedAt());
+            }
+            // оренду перехопили посеред пачки: новий власник доставить ці події ще раз (at-least-once)
+            if (leases.advance(OutboxLease.RELAY, node, lastId) == 0) s.setRollbackOnly();
+        });
+        return delivered.size() == batch.size() ? delivered.size() : 0;
+    }
+
+    // рахує невдалу спробу на самій події; після max-attempts паркує її, щоб вона не блокувала чергу
+    private OutboxEvent countFailure(OutboxEvent e, RuntimeException ex, LocalDateTime now) {
+        e.setAttempts(e.getAttempts() + 1);
+        e.setLastError(truncate(String.valueOf(ex), 1000));
+        if (e.getAttempts() < props.getMaxAttempts()) {
+            log.warn("Outbox: доставку зупинено на події #{} (спроба {} з {})",
+                    e.getId(), e.getAttempts(), props.getMaxAttempts(), ex);
+        } else {
+            e.setParkedAt(now);
+            log.error("Outbox: подію #{} запарковано після {} невдалих спроб", e.getId(), e.getAttempts(), ex);
+        }
+        return e;
+    }
+
+    @Scheduled(fixedDelayString = "${gradebook.outbox.compaction-interval-ms:60000}")
+    public void compact() {
+        LocalDateTime before = LocalDateTime.now().minus(props.getRetention());
+        shards.forEach(shard -> {
+            List<Long> ids;
+            do {
+                ids = repo.findPublishedBefore(before, PageRequest.of(0, props.getCompactionChunk()));
+                if (!ids.isEmpty()) {
+                    List<Long> chunk = ids;
+                    tx.executeWithoutResult(s -> repo.deleteByIds(chunk));
+                }
+            } while (ids.size() == props.getCompactionChunk());
+        });
+    }
+
+    private DomainEvent deserialize(OutboxEvent e) {
+        Class<? extends DomainEvent> type = EVENT_TYPES.get(e.getEventType());
+        if (type == null) throw new IllegalStateException("Невідомий тип події в outbox: " + e.getEventType());
+        try {
+            return mapper.readValue(e.getPayload(), type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Пошкоджений payload події #" + e.getId(), ex);
+        }
+    }
+
+    private static String truncate(String s, int max) {
+        return (s == null || s.length() <= max) ? s : s.substring(0, max);
+    }
+}
@@ -0,0 +1,42 @@
+package org.axolotlik.labs.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axolotlik.labs.event.DomainEvent;
+import org.axolotlik.labs.model.OutboxEvent;
+import org.axolotlik.labs.repo.OutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пише подію в outbox у поточній транзакції: подія з'являється тоді й лише тоді, коли комітиться сама зміна.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxRepository repo;
+    private final ObjectMapper mapper;
+
+    public OutboxWriter(OutboxRepository repo, ObjectMapper mapper) {
+        this.repo = repo;
+        this.mapper = mapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(DomainEvent event) {
+        try {
+            repo.save(OutboxEvent.builder()
+                    .aggregateType(event.aggregateType())
+                    .aggregateId(event.aggregateId())
+                    .eventType(event.getClass().getSimpleName())
+                    .payload(mapper.writeValueAsString(event))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не вдалося серіалізувати подію " + event, e);
+        }
+    }
+}
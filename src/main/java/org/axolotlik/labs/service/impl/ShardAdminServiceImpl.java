@@ -0,0 +1,40 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.model.SchoolStats;
+import org.axolotlik.labs.service.ShardAdminService;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class ShardAdminServiceImpl implements ShardAdminService {
+
+    private final JdbcTemplate jdbc;
+    private final Shards shards;
+
+    public ShardAdminServiceImpl(JdbcTemplate jdbc, Shards shards) {
+        this.jdbc = jdbc;
+        this.shards = shards;
+    }
+
+    @Override
+    public Map<String, List<SchoolStats>> schoolStats() {
+        // кожен fork працює "від кореня" на своєму шарді, тож JDBC іде в його базу
+        return shards.fanOut(shard -> collect());
+    }
+
+    private List<SchoolStats> collect() {
+        Map<Long, long[]> bySchool = new TreeMap<>();
+        jdbc.query("select school_id, count(*) from lesson where deleted_at is null group by school_id",
+                rs -> { bySchool.computeIfAbsent(rs.getLong(1), k -> new long[2])[0] = rs.getLong(2); });
+        jdbc.query("select school_id, count(*) from mark where deleted_at is null group by school_id",
+                rs -> { bySchool.computeIfAbsent(rs.getLong(1), k -> new long[2])[1] = rs.getLong(2); });
+        return bySchool.entrySet().stream()
+                .map(e -> new SchoolStats(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+    }
+}
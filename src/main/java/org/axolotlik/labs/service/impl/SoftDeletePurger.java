@@ -0,0 +1,86 @@
+package org.axolotlik.labs.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.config.PurgeProperties;
+import org.axolotlik.labs.repo.LessonRepository;
+import org.axolotlik.labs.repo.MarkRepository;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Фізично прибирає м'яко видалені рядки невеликими транзакціями з паузами між ними:
+ * спершу відмітки (окремо видалені та відмітки видалених уроків), потім уроки, у яких
+ * відміток уже не лишилося. Так жоден DELETE не тримає довгих блокувань на mark.
+ */
+@Slf4j
+@Component
+public class SoftDeletePurger {
+
+    private final MarkRepository markRepo;
+    private final LessonRepository lessonRepo;
+    private final TransactionTemplate tx;
+    private final PurgeProperties props;
+    private final Shards shards;
+
+    public SoftDeletePurger(MarkRepository markRepo, LessonRepository lessonRepo,
+                            TransactionTemplate tx, PurgeProperties props, Shards shards) {
+        this.markRepo = markRepo;
+        this.lessonRepo = lessonRepo;
+        this.tx = tx;
+        this.props = props;
+        this.shards = shards;
+    }
+
+    @Scheduled(fixedDelayString = "${gradebook.purge.interval-ms:60000}")
+    public void purge() {
+        if (!props.isEnabled()) return;
+        LocalDateTime before = LocalDateTime.now().minus(props.getGrace());
+        shards.forEach(shard -> purgeShard(shard, before));
+    }
+
+    private void purgeShard(String shard, LocalDateTime before) {
+        int[] budget = {props.getMaxChunksPerRun()};
+
+        long marks = drain(budget, limit -> markRepo.findDeletedBefore(before, limit), markRepo::purgeByIds)
+                + drain(budget, limit -> markRepo.findOfLessonsDeletedBefore(before, limit), markRepo::purgeByIds);
+        long lessons = drain(budget, limit -> lessonRepo.findPurgeableBefore(before, limit), lessonRepo::purgeByIds);
+
+        if (marks + lessons > 0) log.info("Purge шарду {}: прибрано {} відміток і {} уроків", shard, marks, lessons);
+    }
+
+    /**
+     * Видаляє чанки, поки вибірка повна і не вичерпано бюджет чанків на прохід.
+     */
+    private long drain(int[] budget, Function<Integer, List<Long>> select, Function<List<Long>, Integer> delete) {
+        long total = 0;
+        List<Long> ids;
+        do {
+            if (budget[0] <= 0) return total;
+            ids = select.apply(props.getChunkSize());
+            if (ids.isEmpty()) return total;
+
+            List<Long> chunk = ids;
+            Integer deleted = tx.execute(s -> delete.apply(chunk));
+            total += (deleted != null) ? deleted : 0;
+            budget[0]--;
+            if (!pause()) return total;
+        } while (ids.size() == props.getChunkSize());
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(props.getPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.axolotlik.labs.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.axolotlik.labs.model.DailyMarkStats;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.model.MarkRollup;
+import org.axolotlik.labs.model.RollupSubject;
+import org.axolotlik.labs.model.TimeSeriesPoint;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.axolotlik.labs.repo.MarkRepository;
+import org.axolotlik.labs.repo.MarkRollupRepository;
+import org.axolotlik.labs.service.StatsService;
+import org.axolotlik.labs.tenant.Shards;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    // гранулярності в порядку первинного ключа mark_rollup (рядкове значення: DAY < MONTH < WEEK)
+    private static final List<Granularity> LOCK_ORDER = Arrays.stream(Granularity.values())
+            .sorted(Comparator.comparing(Granularity::name))
+            .toList();
+
+    private final MarkRollupRepository rollupRepo;
+    private final MarkRepository markRepo;
+    private final ArchiveRepository archive;
+    private final Shards shards;
+    private final TransactionTemplate tx;
+
+    public StatsServiceImpl(MarkRollupRepository rollupRepo, MarkRepository markRepo, ArchiveRepository archive,
+                            Shards shards, TransactionTemplate tx) {
+        this.rollupRepo = rollupRepo;
+        this.markRepo = markRepo;
+        this.archive = archive;
+        this.shards = shards;
+        this.tx = tx;
+    }
+
+    @Override
+    public List<TimeSeriesPoint> timeSeries(String subject, Granularity granularity, LocalDate from, LocalDate to) {
+        return rollupRepo.findBySubjectAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        subject, granularity, granularity.periodStart(from), to)
+                .stream()
+                .filter(r -> r.getMarksCount() > 0)
+                .map(r -> new TimeSeriesPoint(
+                        r.getPeriodStart(),
+                        r.getMarksCount(),
+                        r.getPresentCount(),
+                        (double) r.getPresentCount() / r.getMarksCount(),
+                        r.getGradedCount() > 0 ? (double) r.getGradeSum() / r.getGradedCount() : null))
+                .toList();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyMark(String subject, LocalDate lessonDate, Mark mark, int sign) {
+        boolean graded = mark.getGrade() != null && mark.getGrade() > 0;
+        apply(mark.getSchoolId(), subject, lessonDate,
+                sign,
+                mark.isPresent() ? sign : 0,
+                graded ? (long) sign * mark.getGrade() : 0,
+                graded ? sign : 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyLesson(Long lessonId, int sign) {
+        for (DailyMarkStats s : markRepo.aggregateForLesson(lessonId)) {
+            apply(s.getSchoolId(), s.getSubject(), s.getDate(),
+                    sign * s.getMarks(), sign * s.getPresent(), sign * s.getGradeSum(), sign * s.getGraded());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDaily(Collection<? extends DailyMarkStats> deltas) {
+        // у порядку первинного ключа: кілька записувачів і перерахунок блокують рядки однаково, без дедлоків
+        deltas.stream()
+                .sorted(Comparator.comparing(DailyMarkStats::getSchoolId)
+                        .thenComparing(DailyMarkStats::getSubject)
+                        .thenComparing(DailyMarkStats::getDate))
+                .forEach(s -> apply(s.getSchoolId(), s.getSubject(), s.getDate(),
+                        s.getMarks(), s.getPresent(), s.getGradeSum(), s.getGraded()));
+    }
+
+    private void apply(Long school, String subject, LocalDate date, long marks, long present, long gradeSum, long graded) {
+        for (Granularity g : LOCK_ORDER) {
+            rollupRepo.applyDelta(school, subject, g.name(), g.periodStart(date), marks, present, gradeSum, graded);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        // кожен шард — окрема база: перераховуємо паралельно і без фільтра школи
+        shards.fanOut(shard -> {
+            List<RollupSubject> subjects = rollupRepo.findRollupSubjects();
+            for (RollupSubject s : subjects) {
+                tx.executeWithoutResult(status -> rebuildSubject(s.getSchoolId(), s.getSubject()));
+            }
+            log.info("Rollup-и шарду {} перераховано: {} предметів", shard, subjects.size());
+            return null;
+        });
+    }
+
+    /**
+     * Перерахунок одного предмета школи в короткій транзакції. Спершу блокуються його rollup-и, і лише потім
+     * читаються відмітки: запис, що вже оновив rollup, але ще не закомітився, встигає закомітитись до читання
+     * (і потрапляє в агрегат), а пізніші записи чекають на замок і додають свою дельту вже до нових значень.
+     * Так жодна дельта не губиться і не рахується двічі. Під REPEATABLE READ (MySQL) знімок береться першим
+     * звичайним читанням, тобто вже після замка.
+     */
+    private void rebuildSubject(Long school, String subject) {
+        Map<RollupKey, long[]> totals = new HashMap<>();
+        // наявні рядки без жодної відмітки обнуляються (timeSeries їх не показує), а не видаляються
+        for (MarkRollup r : rollupRepo.lockSubject(school, subject)) {
+            totals.put(new RollupKey(r.getGranularity(), r.getPeriodStart()), new long[4]);
+        }
+
+        // денні агрегати з БД (живі та архівні рядки), тижні й місяці досумовуються в пам'яті
+        List<DailyMarkStats> daily = new ArrayList<>(markRepo.aggregateDailyForSubject(school, subject));
+        daily.addAll(archive.aggregateDailyForSubject(school, subject));
+        for (DailyMarkStats s : daily) {
+            for (Granularity g : Granularity.values()) {
+                long[] acc = totals.computeIfAbsent(new RollupKey(g, g.periodStart(s.getDate())), k -> new long[4]);
+                acc[0] += s.getMarks();
+                acc[1] += s.getPresent();
+                acc[2] += s.getGradeSum();
+                acc[3] += s.getGraded();
+            }
+        }
+        totals.forEach((k, acc) -> rollupRepo.setTotals(
+                school, subject, k.granularity().name(), k.periodStart(), acc[0], acc[1], acc[2], acc[3]));
+    }
+
+    private record RollupKey(Granularity granularity, LocalDate periodStart) {
+    }
+}
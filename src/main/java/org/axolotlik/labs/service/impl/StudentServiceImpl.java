@@ -0,0 +1,59 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.model.StudentReport;
+import org.axolotlik.labs.model.StudentSubjectStats;
+import org.axolotlik.labs.repo.MarkRepository;
+import org.axolotlik.labs.repo.StudentRepository;
+import org.axolotlik.labs.service.StudentService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+@Service
+public class StudentServiceImpl implements StudentService {
+
+    private final StudentRepository studentRepo;
+    private final MarkRepository markRepo;
+    private final TransactionTemplate newTx;
+
+    public StudentServiceImpl(StudentRepository studentRepo, MarkRepository markRepo,
+                              PlatformTransactionManager txManager) {
+        this.studentRepo = studentRepo;
+        this.markRepo = markRepo;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Учень, якого немає в знімку поточної транзакції, створюється в окремій: під REPEATABLE READ
+     * (MySQL за замовчуванням) транзакція addMark не побачила б учня, закоміченого конкурентним запитом,
+     * — upsert на нього нічого не змінює, і повторне читання знову було б порожнім.
+     */
+    @Override
+    @Transactional
+    public Long resolveId(String name) {
+        return studentRepo.findIdByName(name).orElseGet(() -> newTx.execute(status -> {
+            studentRepo.insertIfAbsent(TenantContext.requireSchool(), name);
+            return studentRepo.findIdByName(name).orElseThrow();
+        }));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StudentReport> report(Long studentId, int latestLimit) {
+        return studentRepo.findById(studentId).map(student -> {
+            var subjects = markRepo.aggregateForStudent(studentId).stream()
+                    .sorted(Comparator.comparing(StudentSubjectStats::getSubject))
+                    .toList();
+            var latest = markRepo.findLatestByStudent(studentId, PageRequest.of(0, latestLimit));
+            return new StudentReport(student, subjects, latest);
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package org.axolotlik.labs.service.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Спроба змінити урок або відмітку, які вже перенесено в архів: архів лише для читання.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ArchivedReadOnlyException extends RuntimeException {
+    public ArchivedReadOnlyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,104 @@
+package org.axolotlik.labs.service.support;
+
+import org.axolotlik.labs.tenant.TenantContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Структурований fan-out незалежних запитів на віртуальних потоках (аналог
+ * {@code StructuredTaskScope.ShutdownOnFailure}, який у Java 21 ще preview):
+ * підзадачі живуть не довше за блок try-with-resources, перша помилка скасовує решту,
+ * а {@link #join()} кидає саме її.
+ *
+ * <pre>{@code
+ * try (var scope = new FanOut()) {
+ *     var lesson = scope.fork(() -> lessonRepo.findById(id));
+ *     var marks = scope.fork(() -> markRepo.findByLessonId(id));
+ *     scope.join();
+ *     ... lesson.get(), marks.get()
+ * }
+ * }</pre>
+ */
+public final class FanOut implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> forks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        // підзадача бачить ту саму школу/шард, що й потік, який її створив
+        Callable<T> bound = TenantContext.wrap(task);
+        Future<T> future = executor.submit(() -> {
+            try {
+                return bound.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) cancelAll();
+                throw e;
+            }
+        });
+        synchronized (forks) {
+            forks.add(future);
+        }
+        return new Subtask<>(future);
+    }
+
+    /**
+     * Чекає на всі підзадачі; якщо якась упала — кидає її виняток (інші вже скасовані).
+     */
+    public void join() {
+        List<Future<?>> snapshot;
+        synchronized (forks) {
+            snapshot = List.copyOf(forks);
+        }
+        try {
+            for (Future<?> f : snapshot) {
+                try {
+                    f.get();
+                } catch (ExecutionException | CancellationException e) {
+                    break; // причина вже в failure
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Fan-out перервано", e);
+        }
+
+        Throwable e = failure.get();
+        if (e == null) return;
+        if (e instanceof RuntimeException re) throw re;
+        if (e instanceof Error err) throw err;
+        throw new IllegalStateException(e);
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+
+    private void cancelAll() {
+        synchronized (forks) {
+            for (Future<?> f : forks) f.cancel(true);
+        }
+    }
+
+    public static final class Subtask<T> {
+        private final Future<T> future;
+
+        private Subtask(Future<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Результат підзадачі; викликати лише після успішного {@link FanOut#join()}.
+         */
+        public T get() {
+            if (!future.isDone()) throw new IllegalStateException("Підзадача ще не завершена — спершу join()");
+            return future.resultNow();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.axolotlik.labs.service.support;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Запит не дочекався спільного завантаження даних — відповідаємо 503, а не тримаємо потік далі.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoadTimeoutException extends RuntimeException {
+    public LoadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,76 @@
+package org.axolotlik.labs.service.support;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Ітератор рядків для шаблону, що рендериться частинами. Запит відкривається лише на першому рядку —
+ * до того вже відданий клієнту верх сторінки (див. {@link #beforeOpen}); рядки читаються з курсора БД
+ * по одному, тож пам'ять не залежить від їх кількості.
+ * <p>
+ * Використовувати всередині транзакції, в якій відкрито курсор; {@link #close()} закриває потік.
+ */
+public final class RowCursor<T> implements Iterator<T>, AutoCloseable {
+
+    private final Supplier<Stream<T>> source;
+    private Runnable beforeOpen = () -> { };
+    private Stream<T> stream;
+    private Iterator<T> rows;
+    private long count;
+
+    private RowCursor(Supplier<Stream<T>> source) {
+        this.source = source;
+    }
+
+    public static <T> RowCursor<T> lazy(Supplier<Stream<T>> source) {
+        return new RowCursor<>(source);
+    }
+
+    // рядки, вже завантажені в пам'ять (архів, рендер без стрімінгу)
+    public static <T> RowCursor<T> of(Collection<? extends T> rows) {
+        return new RowCursor<>(() -> rows.stream().<T>map(row -> row));
+    }
+
+    /**
+     * Дія перед відкриттям запиту — наприклад, віддати клієнту вже відрендерений верх сторінки.
+     */
+    public void beforeOpen(Runnable hook) {
+        this.beforeOpen = hook;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return open().hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        count++;
+        return rows.next();
+    }
+
+    /**
+     * Чи не було жодного рядка; має сенс після проходу (у шаблоні — після {@code th:each}).
+     */
+    public boolean isEmpty() {
+        return count == 0 && !open().hasNext();
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) stream.close();
+    }
+
+    private Iterator<T> open() {
+        if (rows == null) {
+            beforeOpen.run();
+            stream = source.get();
+            rows = stream.iterator();
+        }
+        return rows;
+    }
+}
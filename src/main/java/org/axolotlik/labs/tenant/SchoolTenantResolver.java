@@ -0,0 +1,28 @@
+package org.axolotlik.labs.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Тенант для {@code @TenantId}-колонок school_id. Без школи в контексті повертає кореневий ідентифікатор:
+ * Hibernate тоді не додає фільтр school_id — так фонові задачі бачать усі школи свого шарду.
+ */
+public class SchoolTenantResolver implements CurrentTenantIdentifierResolver<Long> {
+
+    static final Long ROOT = 0L;
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() {
+        Long school = TenantContext.school();
+        return (school != null) ? school : ROOT;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(Long tenantId) {
+        return ROOT.equals(tenantId);
+    }
+}
@@ -0,0 +1,37 @@
+package org.axolotlik.labs.tenant;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Маршрутизує з'єднання на шард поточної школи (або явно обраний шард). Ключ читається
+ * при отриманні з'єднання, тож контекст тенанта має бути встановлений до початку транзакції.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final Shards shards;
+
+    public ShardRoutingDataSource(Shards shards, Map<String, DataSource> dataSources) {
+        this.shards = shards;
+        setTargetDataSources(new HashMap<Object, Object>(dataSources));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shards.current();
+    }
+
+    // пули шардів створені тут, а не як окремі біни, тож і закриваємо їх самі
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource ds : getResolvedDataSources().values()) {
+            if (ds instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.axolotlik.labs.tenant;
+
+import org.axolotlik.labs.service.support.FanOut;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Мапа шардів: які бази є і в якій живе кожна школа. Без увімкненого шардингу — один шард за замовчуванням.
+ */
+public class Shards {
+
+    private final String defaultShard;
+    private final List<String> names;
+    private final Map<Long, String> schools;
+
+    public Shards(String defaultShard, List<String> names, Map<Long, String> schools) {
+        if (!names.contains(defaultShard)) {
+            throw new IllegalArgumentException("Шард за замовчуванням " + defaultShard + " відсутній серед " + names);
+        }
+        schools.forEach((school, shard) -> {
+            if (!names.contains(shard)) {
+                throw new IllegalArgumentException("Школа " + school + " посилається на невідомий шард " + shard);
+            }
+        });
+        this.defaultShard = defaultShard;
+        this.names = List.copyOf(names);
+        this.schools = Map.copyOf(schools);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public String shardOf(Long school) {
+        return (school != null) ? schools.getOrDefault(school, defaultShard) : defaultShard;
+    }
+
+    /**
+     * Шард для поточного потоку: явно обраний або шард поточної школи.
+     */
+    public String current() {
+        String shard = TenantContext.shard();
+        return (shard != null) ? shard : shardOf(TenantContext.school());
+    }
+
+    /**
+     * Виконує задачу на шарді "від кореня" — без школи, тобто по всіх школах шарду.
+     */
+    public void onShard(String shard, Runnable task) {
+        TenantContext.runAs(null, shard, task);
+    }
+
+    /**
+     * Послідовно по всіх шардах — для фонових задач, яким не потрібна паралельність.
+     */
+    public void forEach(Consumer<String> task) {
+        for (String shard : names) onShard(shard, () -> task.accept(shard));
+    }
+
+    /**
+     * Паралельно по всіх шардах; помилка на будь-якому шарді скасовує решту.
+     */
+    public <T> Map<String, T> fanOut(Function<String, T> task) {
+        try (var scope = new FanOut()) {
+            Map<String, FanOut.Subtask<T>> forks = new LinkedHashMap<>();
+            for (String shard : names) {
+                forks.put(shard, scope.fork(() -> TenantContext.callAs(null, shard, () -> task.apply(shard))));
+            }
+            scope.join();
+            Map<String, T> result = new LinkedHashMap<>();
+            forks.forEach((shard, f) -> result.put(shard, f.get()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.axolotlik.labs.tenant;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Поточна школа (тенант) і, за потреби, явно обраний шард для потоку.
+ * <p>
+ * Запити користувачів завжди мають школу (її ставить {@code TenantFilter}); тоді шард визначається
+ * за мапою шкіл. Фонові задачі та адмінські запити працюють "від кореня": школи немає, шард задано явно,
+ * а Hibernate не фільтрує рядки за school_id.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Long> SCHOOL = new ThreadLocal<>();
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static Long school() {
+        return SCHOOL.get();
+    }
+
+    public static Long requireSchool() {
+        Long school = SCHOOL.get();
+        if (school == null) throw new IllegalStateException("Операція потребує школи, а контекст тенанта порожній");
+        return school;
+    }
+
+    /**
+     * Явно обраний шард; null — шард визначається школою.
+     */
+    public static String shard() {
+        return SHARD.get();
+    }
+
+    /**
+     * Id школи завжди додатний; 0 зарезервовано за коренем ({@link SchoolTenantResolver}), і потрапити туди
+     * можна лише без школи в контексті.
+     */
+    public static boolean isSchoolId(Long school) {
+        return school != null && school > 0;
+    }
+
+    public static void set(Long school) {
+        requireValid(school);
+        SCHOOL.set(school);
+        SHARD.remove();
+    }
+
+    public static void clear() {
+        SCHOOL.remove();
+        SHARD.remove();
+    }
+
+    public static void runAs(Long school, String shard, Runnable task) {
+        callAs(school, shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(Long school, String shard, Supplier<T> task) {
+        Long prevSchool = SCHOOL.get();
+        String prevShard = SHARD.get();
+        requireValid(school);
+        SCHOOL.set(school);
+        SHARD.set(shard);
+        try {
+            return task.get();
+        } finally {
+            restore(prevSchool, prevShard);
+        }
+    }
+
+    private static void requireValid(Long school) {
+        if (school != null && !isSchoolId(school)) {
+            throw new IllegalArgumentException("Некоректний id школи: " + school);
+        }
+    }
+
+    // ===== передача контексту в інші потоки =====
+
+    public static Runnable wrap(Runnable task) {
+        Long school = SCHOOL.get();
+        String shard = SHARD.get();
+        return () -> runAs(school, shard, task);
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Long school = SCHOOL.get();
+        String shard = SHARD.get();
+        return () -> {
+            Long prevSchool = SCHOOL.get();
+            String prevShard = SHARD.get();
+            SCHOOL.set(school);
+            SHARD.set(shard);
+            try {
+                return task.call();
+            } finally {
+                restore(prevSchool, prevShard);
+            }
+        };
+    }
+
+    private static void restore(Long school, String shard) {
+        if (school != null) SCHOOL.set(school); else SCHOOL.remove();
+        if (shard != null) SHARD.set(shard); else SHARD.remove();
+    }
+}
@@ -0,0 +1,86 @@
+package org.axolotlik.labs.web;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ліміт паралельних запитів з адаптацією за латентністю (AIMD):
+ * якщо запит завершився повільніше за ціль — ліміт зменшується на 10%,
+ * якщо швидше і ліміт був вичерпаний — зростає на 1. Без цілі латентності ліміт фіксований.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+
+    // ReentrantLock, а не synchronized: очікування на моніторі в JDK 21 прив'язує віртуальний потік до carrier-а
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    // guarded by lock
+    private int limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = (latencyTarget != null) ? latencyTarget.toNanos() : 0;
+    }
+
+    /**
+     * Бере дозвіл; чекає не довше {@code maxWait} (нуль — не чекати зовсім).
+     */
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        long remaining = (maxWait != null) ? maxWait.toNanos() : 0;
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                if (remaining <= 0) return false;
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= limit;
+            inFlight--;
+            if (latencyTargetNanos > 0) {
+                if (latencyNanos > latencyTargetNanos) {
+                    limit = Math.max(minLimit, (int) (limit * 0.9));
+                } else if (saturated) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.axolotlik.labs.web;
+
+import java.lang.annotation.*;
+
+/**
+ * Явно відносить ендпоїнт (метод або весь контролер) до групи bulkhead.
+ * Без анотації GET/HEAD потрапляють у {@link EndpointGroup#READ}, решта — у {@link EndpointGroup#WRITE}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+    EndpointGroup value();
+}
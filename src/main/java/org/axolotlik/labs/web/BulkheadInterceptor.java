@@ -0,0 +1,108 @@
+package org.axolotlik.labs.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.axolotlik.labs.config.BulkheadProperties;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control: кожна група ендпоїнтів має власний ліміт паралельних запитів.
+ * Запит понад ліміт отримує швидку відповідь 503/429 з Retry-After замість черги на потоках і з'єднаннях.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTR = BulkheadInterceptor.class.getName() + ".PERMIT";
+
+    private final BulkheadProperties properties;
+    private final Map<EndpointGroup, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejected = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Timer> queueTime = new EnumMap<>(EndpointGroup.class);
+
+    public BulkheadInterceptor(BulkheadProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        for (EndpointGroup group : EndpointGroup.values()) {
+            BulkheadProperties.Group cfg = config(group);
+            var limiter = new AdaptiveConcurrencyLimiter(
+                    cfg.getInitialLimit(), cfg.getMinLimit(), cfg.getMaxLimit(), cfg.getLatencyTarget());
+            String tag = group.name().toLowerCase();
+            limiters.put(group, limiter);
+            rejected.put(group, Counter.builder("gradebook.bulkhead.rejected")
+                    .tag("group", tag).register(registry));
+            queueTime.put(group, Timer.builder("gradebook.bulkhead.queue")
+                    .tag("group", tag).register(registry));
+            Gauge.builder("gradebook.bulkhead.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("group", tag).register(registry);
+            Gauge.builder("gradebook.bulkhead.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("group", tag).register(registry);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod hm)
+                || request.getDispatcherType() == DispatcherType.ERROR
+                || request.getAttribute(PERMIT_ATTR) != null) { // async-диспетчеризація вже має дозвіл
+            return true;
+        }
+
+        EndpointGroup group = resolveGroup(request, hm);
+        BulkheadProperties.Group cfg = config(group);
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = limiters.get(group).tryAcquire(cfg.getMaxWait());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        long now = System.nanoTime();
+        queueTime.get(group).record(now - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            rejected.get(group).increment();
+            response.setStatus(properties.getRejectStatus());
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, cfg.getRetryAfter().toSeconds())));
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTR, new Permit(group, now));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTR) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTR);
+            limiters.get(permit.group()).release(System.nanoTime() - permit.acquiredAt());
+        }
+    }
+
+    private EndpointGroup resolveGroup(HttpServletRequest request, HandlerMethod hm) {
+        Bulkhead ann = hm.getMethodAnnotation(Bulkhead.class);
+        if (ann == null) ann = AnnotatedElementUtils.findMergedAnnotation(hm.getBeanType(), Bulkhead.class);
+        if (ann != null) return ann.value();
+        String method = request.getMethod();
+        return ("GET".equals(method) || "HEAD".equals(method)) ? EndpointGroup.READ : EndpointGroup.WRITE;
+    }
+
+    private BulkheadProperties.Group config(EndpointGroup group) {
+        return switch (group) {
+            case READ -> properties.getRead();
+            case WRITE -> properties.getWrite();
+            case HEAVY -> properties.getHeavy();
+        };
+    }
+
+    private record Permit(EndpointGroup group, long acquiredAt) {
+    }
+}
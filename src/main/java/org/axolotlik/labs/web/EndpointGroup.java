@@ -0,0 +1,13 @@
+package org.axolotlik.labs.web;
+
+/**
+ * Група ендпоїнтів, для якої діє окремий ліміт паралельних запитів (bulkhead).
+ */
+public enum EndpointGroup {
+    /** Дешеві читання: GET окремого заняття, відміток тощо. */
+    READ,
+    /** Запити, що змінюють дані. */
+    WRITE,
+    /** Важкі звіти та повні рендери журналу. */
+    HEAVY
+}
@@ -0,0 +1,109 @@
+package org.axolotlik.labs.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.axolotlik.labs.config.RenderingProperties;
+import org.axolotlik.labs.service.support.RowCursor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContext;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.IThrottledTemplateProcessor;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.ISpringTemplateEngine;
+import org.thymeleaf.spring6.context.webmvc.SpringWebMvcThymeleafRequestContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.spring6.naming.SpringContextVariableNames;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Потоковий рендер Thymeleaf-сторінок з великими таблицями.
+ * <p>
+ * Шаблон обробляється частинами ({@code processThrottled}) прямо у відповідь без Content-Length, тобто chunked:
+ * верх сторінки віддається до відкриття курсора, далі кожні {@code chunk-chars} символів — flush. Ні весь HTML,
+ * ні всі рядки в пам'яті не тримаються. Курсори відкриває сервіс у своїй read-only транзакції, тож з'єднання
+ * зайняте до кінця рендеру — тому стрімляться лише сторінки за HEAVY bulkhead-ом (зараз це журнал).
+ */
+public class StreamingPages {
+
+    /**
+     * Кладе у змінні шаблону дані (курсори) і викликає {@code render}, поки курсори відкриті.
+     */
+    @FunctionalInterface
+    public interface Source extends BiConsumer<Map<String, Object>, Runnable> {
+    }
+
+    private final ISpringTemplateEngine engine;
+    private final ApplicationContext applicationContext;
+    private final RenderingProperties properties;
+
+    public StreamingPages(ISpringTemplateEngine engine, ApplicationContext applicationContext,
+                          RenderingProperties properties) {
+        this.engine = engine;
+        this.applicationContext = applicationContext;
+        this.properties = properties;
+    }
+
+    public boolean enabled() {
+        return properties.isStreaming();
+    }
+
+    public View view(String template, Source source) {
+        return new View() {
+            @Override
+            public String getContentType() {
+                return "text/html;charset=UTF-8";
+            }
+
+            @Override
+            public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                    throws IOException {
+                response.setContentType(getContentType());
+                Writer out = response.getWriter();
+                Map<String, Object> variables = new HashMap<>(model);
+                source.accept(variables, () -> process(template, variables, request, response, out));
+                out.flush();
+            }
+        };
+    }
+
+    private void process(String template, Map<String, Object> variables,
+                         HttpServletRequest request, HttpServletResponse response, Writer out) {
+        // ті самі службові змінні, що додає ThymeleafView: th:action, #fields, конвертери в SpEL
+        var conversionService = (ConversionService) request.getAttribute(ConversionService.class.getName());
+        RequestContext requestContext = new RequestContext(request, response, request.getServletContext(), variables);
+        variables.put(SpringContextVariableNames.SPRING_REQUEST_CONTEXT, requestContext);
+        variables.put(SpringContextVariableNames.THYMELEAF_REQUEST_CONTEXT,
+                new SpringWebMvcThymeleafRequestContext(requestContext, request));
+        variables.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, conversionService));
+        for (Object value : variables.values()) {
+            if (value instanceof RowCursor<?> cursor) cursor.beforeOpen(() -> flush(out));
+        }
+
+        var exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, response);
+        var context = new WebContext(exchange, RequestContextUtils.getLocale(request), variables);
+        IThrottledTemplateProcessor processor = engine.processThrottled(template, context);
+        while (!processor.isFinished()) {
+            processor.process(properties.getChunkChars(), out);
+            flush(out);
+        }
+    }
+
+    private static void flush(Writer out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.axolotlik.labs.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Встановлює школу запиту із заголовка (за замовчуванням X-School-Id); без заголовка — школа за замовчуванням.
+ * Стоїть перед усім, що відкриває з'єднання чи EntityManager, бо від школи залежать і шард, і фільтр Hibernate.
+ * Id школи лише додатний: "від кореня" (без фільтра school_id) працюють тільки фонові задачі через
+ * {@link TenantContext#runAs}, а не клієнт із заголовком.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final String header;
+    private final Long defaultSchool;
+
+    public TenantFilter(String header, Long defaultSchool) {
+        this.header = header;
+        this.defaultSchool = defaultSchool;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String raw = request.getHeader(header);
+        Long school;
+        if (raw == null || raw.isBlank()) {
+            school = defaultSchool;
+        } else {
+            try {
+                school = Long.parseLong(raw.trim());
+            } catch (NumberFormatException e) {
+                school = null;
+            }
+            if (!TenantContext.isSchoolId(school)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Некоректний " + header + ": " + raw);
+                return;
+            }
+        }
+
+        TenantContext.set(school);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // async-диспетчеризація (StreamingResponseBody тощо) теж має бачити школу
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
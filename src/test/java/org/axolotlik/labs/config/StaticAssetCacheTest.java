@@ -0,0 +1,57 @@
+package org.axolotlik.labs.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Кеш статики: назавжди — лише URL з хешем вмісту, проста URL щоразу перевіряється.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:assets;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "gradebook.outbox.relay-enabled=false",
+        "gradebook.purge.enabled=false",
+        "gradebook.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class StaticAssetCacheTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired ResourceUrlProvider urls;
+
+    @Test
+    void fingerprintedAssetsAreImmutable() throws Exception {
+        for (String plain : new String[]{"/css/style.css", "/js/app.js"}) {
+            String versioned = urls.getForLookupPath(plain);
+            assertThat(versioned).matches(".+-[0-9a-f]{32}\\.(css|js)");
+
+            mvc.perform(get(versioned))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+        }
+    }
+
+    @Test
+    void plainAssetUrlsAreRevalidated() throws Exception {
+        for (String plain : new String[]{"/css/style.css", "/js/app.js"}) {
+            mvc.perform(get(plain))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andExpect(header().string("Cache-Control", not(containsString("immutable"))));
+        }
+    }
+}
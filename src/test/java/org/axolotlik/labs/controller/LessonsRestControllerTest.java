@@ -0,0 +1,98 @@
+package org.axolotlik.labs.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streaming;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "gradebook.rendering.streaming=true",
+        "gradebook.outbox.relay-enabled=false",
+        "gradebook.purge.enabled=false",
+        "gradebook.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class LessonsRestControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JournalService journal;
+
+    @Test
+    void searchReturnsMarksCountPerLesson() throws Exception {
+        TenantContext.set(1L);
+        try {
+            Lesson withMarks = journal.createLesson("Хімія", "Кислоти");
+            journal.addMark(withMarks.getId(), Mark.builder().studentName("Бондар Іра").grade(9).present(true)
+                    .timestamp(LocalDateTime.now()).build());
+            journal.addMark(withMarks.getId(), Mark.builder().studentName("Мельник Олег").present(false)
+                    .timestamp(LocalDateTime.now()).build());
+            journal.createLesson("Хімія", "Солі");
+        } finally {
+            TenantContext.clear();
+        }
+
+        mvc.perform(get("/api/lessons/search").param("subject", "Хімія"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.topic == 'Кислоти')].marksCount").value(2))
+                .andExpect(jsonPath("$[?(@.topic == 'Солі')].marksCount").value(0));
+    }
+
+    @Test
+    void byIdsAnswersEveryIdInRequestOrder() throws Exception {
+        Lesson first = inSchool(() -> journal.createLesson("Географія", "Материки"));
+        Lesson second = inSchool(() -> journal.createLesson("Географія", "Океани"));
+        String ids = second.getId() + ",999999," + first.getId();
+
+        String body = mvc.perform(get("/api/lessons").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['%d'].found", second.getId()).value(true))
+                .andExpect(jsonPath("$['%d'].lesson.topic", second.getId()).value("Океани"))
+                .andExpect(jsonPath("$['999999'].found").value(false))
+                .andExpect(jsonPath("$['999999'].lesson").doesNotExist())
+                .andExpect(jsonPath("$['%d'].lesson.topic", first.getId()).value("Материки"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(new ObjectMapper().readValue(body, LinkedHashMap.class).keySet())
+                .containsExactly(String.valueOf(second.getId()), "999999", String.valueOf(first.getId()));
+    }
+
+    @Test
+    void byIdsRejectsEmptyOversizedAndBlankIds() throws Exception {
+        String tooMany = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mvc.perform(get("/api/lessons").param("ids", "")).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/lessons").param("ids", tooMany)).andExpect(status().isBadRequest());
+        mvc.perform(get("/api/lessons").param("ids", "1,,2")).andExpect(status().isBadRequest());
+    }
+
+    private static <T> T inSchool(Supplier<T> body) {
+        TenantContext.set(1L);
+        try {
+            return body.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.axolotlik.labs.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streaming;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "gradebook.rendering.streaming=true",
+        "gradebook.outbox.relay-enabled=false",
+        "gradebook.purge.enabled=false",
+        "gradebook.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class MarksLookupRestControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JournalService journal;
+
+    @Test
+    void lookupAnswersEveryLessonInRequestOrder() throws Exception {
+        Lesson withMarks = inSchool(() -> {
+            Lesson lesson = journal.createLesson("Біологія", "Клітина");
+            journal.addMark(lesson.getId(), Mark.builder().studentName("Шевчук Марта").grade(12).present(true)
+                    .timestamp(LocalDateTime.now()).build());
+            return lesson;
+        });
+        Lesson empty = inSchool(() -> journal.createLesson("Біологія", "Тканини"));
+
+        String body = mvc.perform(lookup("[%d, 999999, %d]".formatted(empty.getId(), withMarks.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['%d'].found", empty.getId()).value(true))
+                .andExpect(jsonPath("$['%d'].marks.length()", empty.getId()).value(0))
+                .andExpect(jsonPath("$['999999'].found").value(false))
+                .andExpect(jsonPath("$['%d'].marks[0].studentName", withMarks.getId()).value("Шевчук Марта"))
+                .andExpect(jsonPath("$['%d'].marks[0].grade", withMarks.getId()).value(12))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(new ObjectMapper().readValue(body, LinkedHashMap.class).keySet())
+                .containsExactly(String.valueOf(empty.getId()), "999999", String.valueOf(withMarks.getId()));
+    }
+
+    @Test
+    void lookupRejectsEmptyOversizedAndNullIds() throws Exception {
+        String tooMany = LongStream.rangeClosed(1, 1001).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mvc.perform(lookup("[]")).andExpect(status().isBadRequest());
+        mvc.perform(lookup("[" + tooMany + "]")).andExpect(status().isBadRequest());
+        mvc.perform(lookup("[1, null, 2]")).andExpect(status().isBadRequest());
+        mvc.perform(post("/api/marks:lookup").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static RequestBuilder lookup(String lessonIds) {
+        return post("/api/marks:lookup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lessonIds\": " + lessonIds + "}");
+    }
+
+    private static <T> T inSchool(Supplier<T> body) {
+        TenantContext.set(1L);
+        try {
+            return body.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
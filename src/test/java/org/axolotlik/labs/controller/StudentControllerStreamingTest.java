@@ -0,0 +1,80 @@
+package org.axolotlik.labs.controller;
+
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.service.JournalService;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Потоковий рендер сторінок на повному контексті з H2: шаблон отримує рядки з курсора БД.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:streaming;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "gradebook.rendering.streaming=true",
+        "gradebook.outbox.relay-enabled=false",
+        "gradebook.purge.enabled=false",
+        "gradebook.archive.enabled=false"
+})
+@AutoConfigureMockMvc
+class StudentControllerStreamingTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JournalService journal;
+
+    @Test
+    void lessonPageRendersTheLoadedMarks() throws Exception {
+        Long lessonId = inSchool(() -> {
+            Lesson lesson = journal.createLesson("Математика", "Дроби");
+            journal.addMark(lesson.getId(), mark("Петренко Оксана", 11));
+            journal.addMark(lesson.getId(), mark("Коваль Андрій", 7));
+            return lesson.getId();
+        });
+
+        mvc.perform(get("/lesson/{id}", lessonId))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Дроби")))
+                .andExpect(content().string(containsString("Петренко Оксана")))
+                .andExpect(content().string(containsString("11 (Відмінно)")))
+                .andExpect(content().string(containsString("Коваль Андрій")));
+    }
+
+    @Test
+    void journalPageRendersLessonsFromTheCursor() throws Exception {
+        inSchool(() -> journal.createLesson("Фізика", "Оптика"));
+
+        mvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Оптика")));
+    }
+
+    private static Mark mark(String student, int grade) {
+        return Mark.builder().studentName(student).grade(grade).present(true)
+                .timestamp(LocalDateTime.now()).build();
+    }
+
+    private static <T> T inSchool(Supplier<T> body) {
+        TenantContext.set(1L);
+        try {
+            return body.get();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package org.axolotlik.labs.repo;
+
+import org.axolotlik.labs.config.TenancyConfig;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.model.OutboxLease;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Регресія планів запитів: кожен запит репозиторіїв виконується на вбудованій H2 (режим MySQL) зі схемою
+ * з Liquibase, перехоплений SQL проганяється через EXPLAIN. Тест падає, якщо запит перейшов на повний скан
+ * таблиці або сортує за колонками, під які немає складеного індексу.
+ * <p>
+ * H2, на відміну від MySQL, не читає індекс у порядку сортування після префікса рівності, тож "без filesort"
+ * перевіряється за схемою: для кожного запиту з ORDER BY має бути індекс (колонки рівності + колонки ORDER BY).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, QueryPlanTest.Capture.class})
+class QueryPlanTest {
+
+    // повний скан тут очікуваний: перерахунок rollup-ів збирає перелік предметів з усіх уроків, а холодний архів
+    // не має індексу за предметом — обидва запити лише у фоновому backfill
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "MarkRollupRepository.findRollupSubjects",
+            "ArchiveRepository.aggregateDailyForSubject"
+    );
+
+    // компакція outbox: діапазон по published_at + порядок id, пачками з limit у фоні
+    private static final Set<String> FILESORT_ALLOWED = Set.of(
+            "OutboxRepository.findPublishedBefore"
+    );
+
+    // запити з ORDER BY: таблиця і колонки рівності перед колонками сортування
+    private static final Map<String, Sorted> SORTED = Map.of(
+            "LessonRepository.search", new Sorted("lesson", "school_id"),
+            "LessonRepository.findByTopicPattern", new Sorted("lesson", "school_id"),
+            "LessonRepository.streamJournal", new Sorted("lesson"),
+            "MarkRepository.findAllByOrderByTimestampDesc", new Sorted("mark", "school_id"),
+            "MarkRepository.findPresentByLesson", new Sorted("mark", "lesson_id", "present"),
+            "MarkRepository.findInRangeForLesson", new Sorted("mark", "lesson_id"),
+            "MarkRollupRepository.findBySubjectAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc",
+            new Sorted("mark_rollup", "school_id", "subject", "granularity"),
+            "OutboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc",
+            new Sorted("outbox", "published_at", "parked_at"),
+            "ArchiveRepository.findArchivableLessonIds", new Sorted("lesson"),
+            "MarkRepository.findLatestByStudent", new Sorted("mark", "student_id")
+    );
+
+    // "/* PUBLIC.MARK.tableScan */" або індекс без умов "/* PUBLIC.IDX_... */" — обидва читають таблицю повністю
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\*\\s*PUBLIC\\.[A-Z0-9_.]+\\s*\\*/",
+            Pattern.CASE_INSENSITIVE);
+    // у порядку зовнішніх ключів: спершу дочірні таблиці
+    private static final List<String> SEEDED_TABLES = List.of(
+            "mark_archive", "lesson_archive", "mark", "student", "lesson", "outbox", "mark_rollup");
+
+    private static final Pattern ORDER_BY = Pattern.compile(
+            "\\border\\s+by\\s+(.+?)(?:\\s+(?:limit|offset|fetch|for\\s+update)\\b|\\)|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    @Autowired LessonRepository lessons;
+    @Autowired MarkRepository marks;
+    @Autowired MarkRollupRepository rollups;
+    @Autowired OutboxRepository outbox;
+    @Autowired OutboxLeaseRepository outboxLeases;
+    @Autowired ImportJobRepository importJobs;
+    @Autowired StudentRepository students;
+    @Autowired DataSource dataSource;
+    @Autowired SqlLog sqlLog;
+
+    private JdbcTemplate jdbc;
+    private ArchiveRepository archive;
+
+    // запити користувачів завжди мають школу — Hibernate додає school_id, як і в проді;
+    // тенант сесії фіксується при її відкритті, тобто ще до @BeforeEach
+    @BeforeTransaction
+    void enterSchool() {
+        TenantContext.set(1L);
+    }
+
+    // seed() не відкочується разом з тестом (analyze у H2 комітить транзакцію), тому чистимо вручну
+    @AfterTransaction
+    void leaveSchool() {
+        TenantContext.clear();
+        for (String table : SEEDED_TABLES) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        archive = new ArchiveRepository(jdbc);
+        seed();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = LocalDate.now();
+        List<Long> ids = List.of(1L, 2L);
+
+        Map<String, Runnable> probes = new LinkedHashMap<>();
+        probes.put("LessonRepository.findAll", lessons::findAll);
+        probes.put("LessonRepository.search", () -> lessons.search("мат", today.minusDays(30), today));
+        probes.put("LessonRepository.findByTopicPattern", () -> lessons.findByTopicPattern("дроби"));
+        probes.put("LessonRepository.findBySubjectContainingIgnoreCaseAndDateBetween",
+                () -> lessons.findBySubjectContainingIgnoreCaseAndDateBetween("мат", today.minusDays(30), today));
+        probes.put("LessonRepository.findByIdIn", () -> lessons.findByIdIn(ids));
+        probes.put("LessonRepository.findExistingIds", () -> lessons.findExistingIds(ids));
+        probes.put("LessonRepository.findById", () -> lessons.findById(1L));
+        probes.put("LessonRepository.streamJournal", () -> {
+            try (var rows = lessons.streamJournal()) {
+                rows.forEach(row -> { });
+            }
+        });
+        probes.put("LessonRepository.findPurgeableBefore", () -> lessons.findPurgeableBefore(now, 100));
+
+        probes.put("MarkRepository.findByLessonId", () -> marks.findByLessonId(1L));
+        probes.put("MarkRepository.findByLessonIdIn", () -> marks.findByLessonIdIn(ids));
+        probes.put("MarkRepository.countByLessonIdIn", () -> marks.countByLessonIdIn(ids));
+        probes.put("MarkRepository.findById", () -> marks.findById(1L));
+        probes.put("MarkRepository.findAllByOrderByTimestampDesc",
+                () -> marks.findAllByOrderByTimestampDesc(PageRequest.of(0, 20)));
+        probes.put("MarkRepository.findPresentByLesson", () -> marks.findPresentByLesson(1L));
+        probes.put("MarkRepository.findInRangeForLesson",
+                () -> marks.findInRangeForLesson(1L, now.minusDays(7), now));
+        probes.put("MarkRepository.aggregateDailyForSubject", () -> marks.aggregateDailyForSubject(1L, "Математика"));
+        probes.put("MarkRepository.aggregateForLesson", () -> marks.aggregateForLesson(1L));
+        probes.put("MarkRepository.findDeletedBefore", () -> marks.findDeletedBefore(now, 100));
+        probes.put("MarkRepository.findOfLessonsDeletedBefore", () -> marks.findOfLessonsDeletedBefore(now, 100));
+        probes.put("MarkRepository.aggregateForStudent", () -> marks.aggregateForStudent(1L));
+        probes.put("MarkRepository.findLatestByStudent",
+                () -> marks.findLatestByStudent(1L, PageRequest.of(0, 20)));
+
+        probes.put("StudentRepository.findById", () -> students.findById(1L));
+        probes.put("StudentRepository.findIdByName", () -> students.findIdByName("Учень 1"));
+
+        probes.put("MarkRollupRepository.findBySubjectAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc",
+                () -> rollups.findBySubjectAndGranularityAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        "Математика", Granularity.WEEK, today.minusMonths(3), today));
+
+        probes.put("MarkRollupRepository.lockSubject", () -> rollups.lockSubject(1L, "Математика"));
+        probes.put("MarkRollupRepository.findRollupSubjects", rollups::findRollupSubjects);
+
+        probes.put("OutboxRepository.findByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc",
+                () -> outbox.findByPublishedAtIsNullAndParkedAtIsNullOrderByIdAsc(PageRequest.of(0, 200)));
+        probes.put("OutboxRepository.findPublishedBefore",
+                () -> outbox.findPublishedBefore(now, PageRequest.of(0, 200)));
+
+        probes.put("OutboxLeaseRepository.findById", () -> outboxLeases.findById(OutboxLease.RELAY));
+
+        probes.put("ImportJobRepository.findById", () -> importJobs.findById(1L));
+
+        probes.put("ArchiveRepository.findLessons", () -> archive.findLessons(ids));
+        probes.put("ArchiveRepository.findMarksByLessonIds", () -> archive.findMarksByLessonIds(ids));
+        probes.put("ArchiveRepository.findMark", () -> archive.findMark(1L));
+        probes.put("ArchiveRepository.isArchivedLesson", () -> archive.isArchivedLesson(1L));
+        probes.put("ArchiveRepository.isArchivedMark", () -> archive.isArchivedMark(1L));
+        probes.put("ArchiveRepository.aggregateDailyForSubject",
+                () -> archive.aggregateDailyForSubject(1L, "Математика"));
+        probes.put("ArchiveRepository.findArchivableLessonIds",
+                () -> archive.findArchivableLessonIds(today.minusYears(1), 50));
+
+        // модифікуючі запити — останніми, щоб не змінювати дані для читань вище
+        probes.put("LessonRepository.softDelete", () -> lessons.softDelete(2L, now));
+        probes.put("MarkRepository.softDelete", () -> marks.softDelete(3L, now));
+        probes.put("OutboxRepository.markPublished", () -> outbox.markPublished(ids, now));
+        probes.put("OutboxRepository.recordFailure", () -> outbox.recordFailure(1L, 1, "помилка", null));
+        probes.put("OutboxLeaseRepository.acquire",
+                () -> outboxLeases.acquire(OutboxLease.RELAY, "node", now, now.plusSeconds(30)));
+        probes.put("OutboxLeaseRepository.advance", () -> outboxLeases.advance(OutboxLease.RELAY, "node", 1L));
+        probes.put("MarkRepository.purgeByIds", () -> marks.purgeByIds(List.of(3L)));
+        probes.put("LessonRepository.purgeByIds", () -> lessons.purgeByIds(List.of(99L)));
+        probes.put("MarkRollupRepository.applyDelta",
+                () -> rollups.applyDelta(1L, "Математика", Granularity.DAY.name(), today, 1, 1, 10, 1));
+        probes.put("MarkRollupRepository.setTotals",
+                () -> rollups.setTotals(1L, "Математика", Granularity.DAY.name(), today, 1, 1, 10, 1));
+        probes.put("StudentRepository.insertIfAbsent", () -> students.insertIfAbsent(1L, "Новий учень"));
+        probes.put("ArchiveRepository.moveLessons", () -> archive.moveLessons(List.of(20L)));
+
+        List<String> problems = new ArrayList<>();
+        probes.forEach((name, call) -> {
+            sqlLog.clear();
+            call.run();
+            List<String> statements = sqlLog.statements();
+            assertThat(statements).as("%s не виконав жодного SQL", name).isNotEmpty();
+            for (String sql : statements) {
+                if (!isExplainable(sql)) continue;
+                String plan = explain(sql);
+                if (!FULL_SCAN_ALLOWED.contains(name) && FULL_SCAN.matcher(plan).find()) {
+                    problems.add(name + ": повний скан\n  " + plan);
+                }
+                if (!FILESORT_ALLOWED.contains(name)) {
+                    checkSortCovered(name, sql, problems);
+                }
+            }
+        });
+
+        assertThat(problems).as("регресії планів запитів").isEmpty();
+    }
+
+    // захист від "зеленого" тесту, якщо формат EXPLAIN в H2 зміниться
+    @Test
+    void fullScanIsDetected() {
+        String plan = explain("select * from mark where student_name = ?");
+        assertThat(FULL_SCAN.matcher(plan).find()).as(plan).isTrue();
+    }
+
+    private void checkSortCovered(String name, String sql, List<String> problems) {
+        Matcher m = ORDER_BY.matcher(sql);
+        if (!m.find()) return;
+        Sorted sorted = SORTED.get(name);
+        if (sorted == null) {
+            problems.add(name + ": ORDER BY без задекларованого індексу\n  " + sql);
+            return;
+        }
+        List<String> wanted = new ArrayList<>(sorted.equality());
+        for (String part : m.group(1).split(",")) {
+            String column = part.trim().split("\\s+")[0].toLowerCase(Locale.ROOT);
+            wanted.add(column.substring(column.indexOf('.') + 1));
+        }
+        boolean covered = indexes(sorted.table()).values().stream()
+                .anyMatch(columns -> columns.size() >= wanted.size()
+                        && columns.subList(0, wanted.size()).equals(wanted));
+        if (!covered) {
+            problems.add(name + ": немає індексу " + sorted.table() + wanted + " — сортування без індексу");
+        }
+    }
+
+    private Map<String, List<String>> indexes(String table) {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        jdbc.query("""
+                   select index_name, column_name from information_schema.index_columns
+                   where upper(table_name) = upper(?)
+                   order by index_name, ordinal_position
+                   """,
+                rs -> {
+                    result.computeIfAbsent(rs.getString(1), k -> new ArrayList<>())
+                            .add(rs.getString(2).toLowerCase(Locale.ROOT));
+                }, table);
+        return result;
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("update") || head.startsWith("delete");
+    }
+
+    // план будується під час prepare, тож значення параметрів на нього не впливають
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("explain " + sql)) {
+                int params = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= params; i++) ps.setObject(i, null);
+                try (ResultSet rs = ps.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) plan.append(rs.getString(1)).append('\n');
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    private void seed() {
+        LocalDate today = LocalDate.now();
+        for (long student = 1; student <= 10; student++) {
+            jdbc.update("insert into student (id, school_id, name) values (?, 1, ?)", student, "Учень " + student);
+        }
+        for (long lesson = 1; lesson <= 20; lesson++) {
+            jdbc.update("insert into lesson (id, school_id, subject, topic, lesson_date) values (?, 1, ?, ?, ?)",
+                    lesson, (lesson % 2 == 0) ? "Математика" : "Фізика", "Тема " + lesson,
+                    Date.valueOf(today.minusDays(lesson)));
+            for (int student = 0; student < 10; student++) {
+                jdbc.update("""
+                            insert into mark (school_id, lesson_id, student_id, student_name, grade, present, updated_at)
+                            values (1, ?, ?, ?, ?, ?, ?)
+                            """,
+                        lesson, student + 1, "Учень " + (student + 1), student % 12 + 1, student % 5 != 0,
+                        Timestamp.valueOf(LocalDateTime.now().minusHours(lesson * 10 + student)));
+            }
+        }
+        jdbc.execute("analyze");
+    }
+
+    private record Sorted(String table, List<String> equality) {
+        Sorted(String table, String... equality) {
+            this(table, List.of(equality));
+        }
+    }
+
+    /**
+     * Журнал SQL: DataSource застосунку обгортається так, що кожен prepare* і Statement.execute* записує текст запиту.
+     * Ловить і Hibernate, і JdbcTemplate-репозиторії.
+     */
+    static class SqlLog {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        DataSource wrap(DataSource target) {
+            return new DelegatingDataSource(target) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return record(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return record(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection record(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            statements.add(sql);
+                        }
+                        Object result = invoke(method, target, args);
+                        return (result instanceof Statement statement && method.getName().equals("createStatement"))
+                                ? record(statement) : result;
+                    });
+        }
+
+        // JdbcTemplate без параметрів іде через createStatement + execute*(sql)
+        private Statement record(Statement target) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute") && args != null && args[0] instanceof String sql) {
+                            statements.add(sql);
+                        }
+                        return invoke(method, target, args);
+                    });
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class Capture {
+
+        @Bean
+        SqlLog sqlLog() {
+            return new SqlLog();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSource(ObjectProvider<SqlLog> log) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return (bean instanceof DataSource ds) ? log.getObject().wrap(ds) : bean;
+                }
+            };
+        }
+    }
+}
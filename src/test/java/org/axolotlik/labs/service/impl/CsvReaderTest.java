@@ -0,0 +1,64 @@
+package org.axolotlik.labs.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndEscapedQuotes() throws IOException {
+        List<List<String>> records = readAll("a,\"b,c\",\"він сказав \"\"так\"\"\",\"\"\n,x,\n");
+
+        assertThat(records).containsExactly(
+                List.of("a", "b,c", "він сказав \"так\"", ""),
+                List.of("", "x", ""));
+    }
+
+    @Test
+    void crlfAndLfEndRecordsTheSameWay() throws IOException {
+        assertThat(readAll("a,b\r\nc,d\ne,f\r\n")).containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e", "f"));
+        assertThat(readAll("a,b\r\nc,d")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void leadingBomIsNotPartOfTheFirstField() throws IOException {
+        assertThat(readAll("\uFEFFlesson_date,subject\n\uFEFFx,y\n"))
+                .containsExactly(List.of("lesson_date", "subject"), List.of("\uFEFFx", "y"));
+    }
+
+    @Test
+    void lineCountsPhysicalLinesAcrossQuotedNewlines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("h1,h2\r\n\"1\r\n2\n3\",x\nlast,y\r\n\nz,w"));
+        List<Long> lines = new ArrayList<>();
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+            lines.add(reader.line());
+        }
+
+        assertThat(records.get(1)).containsExactly("1\r\n2\n3", "x");
+        assertThat(lines).containsExactly(1L, 2L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void unclosedQuoteIsAnError() {
+        assertThatThrownBy(() -> readAll("a,\"b\nc\n")).isInstanceOf(IOException.class);
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.next()) != null) records.add(record);
+        }
+        return records;
+    }
+}
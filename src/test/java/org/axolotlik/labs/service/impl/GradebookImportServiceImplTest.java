@@ -0,0 +1,129 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.config.ImportProperties;
+import org.axolotlik.labs.config.TenancyConfig;
+import org.axolotlik.labs.model.ImportJob;
+import org.axolotlik.labs.model.ImportRowError;
+import org.axolotlik.labs.model.ImportStatus;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.axolotlik.labs.repo.ImportJobRepository;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Імпорт CSV на H2: продовження перерваного імпорту за закоміченими чанками і номери рядків у помилках.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:imports;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, StatsServiceImpl.class, ArchiveRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GradebookImportServiceImplTest {
+
+    private static final String HEADER = "lesson_date,subject,topic,student_name,present,grade\n";
+
+    @TempDir Path dir;
+
+    @Autowired ImportJobRepository jobRepo;
+    @Autowired StatsServiceImpl stats;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+    private GradebookImportServiceImpl importer;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        ImportProperties props = new ImportProperties();
+        props.setChunkSize(2);
+        props.setWorkers(2);
+        importer = new GradebookImportServiceImpl(jobRepo, jdbc, txManager, new SimpleAsyncTaskExecutor(), props, stats);
+        TenantContext.set(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        for (String table : List.of("import_job", "mark", "student", "lesson", "mark_rollup")) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void resumeSkipsCommittedChunksAndCountsEachRowOnce() throws IOException {
+        String rows = """
+                2025-03-05,Математика,Дроби,Учень 1,true,10
+                2025-03-05,Математика,Дроби,Учень 2,true,8
+                2025-03-05,Математика,Дроби,Учень 3,false,
+                2025-03-06,Математика,Відсотки,Учень 1,true,12
+                2025-03-06,Математика,Відсотки,Учень 2,true,6
+                """;
+        String firstFour = rows.substring(0, rows.lastIndexOf("2025-03-06,Математика,Відсотки,Учень 2"));
+        ImportJob job = importer.createJob("marks.csv");
+
+        // перший прохід встиг закомітити чанки 0 і 1, після чого процес впав
+        importer.runImport(job.getId(), csv("part.csv", HEADER + firstFour));
+        jdbc.update("update import_job set status = ? where id = ?", ImportStatus.FAILED.name(), job.getId());
+
+        ImportJob done = importer.runImport(job.getId(), csv("marks.csv", HEADER + rows));
+
+        assertThat(done.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(done.getRowsImported()).isEqualTo(5);
+        assertThat(jdbc.queryForObject("select count(*) from mark", Long.class)).isEqualTo(5);
+        assertThat(jdbc.queryForObject("select count(*) from import_chunk where job_id = ?", Long.class, job.getId()))
+                .isEqualTo(3);
+        assertThat(jdbc.queryForObject(
+                "select sum(marks_count) from mark_rollup where granularity = 'DAY'", Long.class)).isEqualTo(5);
+        assertThat(jdbc.queryForObject(
+                "select grade_sum from mark_rollup where granularity = 'WEEK'", Long.class)).isEqualTo(36);
+    }
+
+    @Test
+    void rejectedRowsPointAtThePhysicalLineOfTheFile() throws IOException {
+        // BOM, CRLF і тема з переносом рядка в лапках — рядок з помилкою лежить на 5-му фізичному рядку
+        String content = "\uFEFF" + HEADER.replace("\n", "\r\n")
+                + "2025-03-05,Математика,\"Дроби:\r\nповторення\",Учень 1,true,10\r\n"
+                + "2025-03-05,Математика,Дроби,Учень 2,true,8\r\n"
+                + "2025-03-05,Математика,Дроби,Учень 3,true,13\r\n";
+        ImportJob job = importer.createJob("marks.csv");
+
+        ImportJob done = importer.runImport(job.getId(), csv("marks.csv", content));
+
+        assertThat(done.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(done.getRowsImported()).isEqualTo(2);
+        assertThat(importer.getErrors(job.getId(), 10)).extracting(ImportRowError::line).containsExactly(5L);
+        assertThat(jdbc.queryForObject("select topic from lesson where topic like 'Дроби:%'", String.class))
+                .isEqualTo("Дроби:\r\nповторення");
+    }
+
+    private Path csv(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,158 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.axolotlik.labs.repo.LessonRepository;
+import org.axolotlik.labs.repo.MarkRepository;
+import org.axolotlik.labs.service.support.LoadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class JournalServiceImplSingleFlightTest {
+
+    private static final int READERS = 30;
+
+    private final LessonRepository lessonRepo = mock(LessonRepository.class);
+    private final MarkRepository markRepo = mock(MarkRepository.class);
+    private final ArchiveRepository archive = mock(ArchiveRepository.class);
+
+    @Test
+    void concurrentReadersOfOneLessonShareOneQueryPair() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Lesson lesson = Lesson.builder().id(1L).subject("Математика").date(LocalDate.now()).build();
+        when(lessonRepo.findById(1L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(lesson);
+        });
+        Mark mark = Mark.builder().id(7L).lessonId(1L).studentName("Петренко Оксана").grade(11).build();
+        when(markRepo.findByLessonId(1L)).thenReturn(List.of(mark));
+
+        JournalServiceImpl service = service(Duration.ofSeconds(5));
+        ExecutorService pool = Executors.newFixedThreadPool(READERS);
+        try {
+            CountDownLatch started = new CountDownLatch(READERS);
+            List<Future<Optional<Lesson>>> results = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                results.add(pool.submit(() -> {
+                    started.countDown();
+                    return service.getLessonById(1L);
+                }));
+            }
+            started.await();
+            Thread.sleep(300); // усі читачі встигають приєднатися до завантаження лідера
+            release.countDown();
+
+            Set<Lesson> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Optional<Lesson>> f : results) {
+                Lesson got = f.get(5, TimeUnit.SECONDS).orElseThrow();
+                assertThat(got).isEqualTo(lesson);
+                assertThat(got.getMarks()).containsExactly(mark);
+                assertThat(got.getMarks().get(0)).isNotSameAs(mark);
+                seen.add(got);
+            }
+            // кожен викликач отримав власний об'єкт
+            assertThat(seen).hasSize(READERS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(lessonRepo, times(1)).findById(1L);
+        verify(markRepo, times(1)).findByLessonId(1L);
+    }
+
+    @Test
+    void callerChangesDoNotLeakIntoTheSharedLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Lesson lesson = Lesson.builder().id(3L).subject("Фізика").date(LocalDate.now()).build();
+        Mark mark = Mark.builder().id(8L).lessonId(3L).studentName("Коваль Андрій").grade(7).build();
+        when(lessonRepo.findById(3L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(lesson);
+        });
+        when(markRepo.findByLessonId(3L)).thenReturn(List.of(mark));
+
+        JournalServiceImpl service = service(Duration.ofSeconds(5));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<Lesson>> first = pool.submit(() -> service.getLessonById(3L));
+            Future<Optional<Lesson>> second = pool.submit(() -> service.getLessonById(3L));
+            Thread.sleep(300);
+            release.countDown();
+
+            Lesson mine = first.get(5, TimeUnit.SECONDS).orElseThrow();
+            mine.setSubject("Хімія");
+            mine.getMarks().get(0).setGrade(12);
+            mine.getMarks().clear();
+
+            Lesson theirs = second.get(5, TimeUnit.SECONDS).orElseThrow();
+            assertThat(theirs.getSubject()).isEqualTo("Фізика");
+            assertThat(theirs.getMarks()).extracting(Mark::getGrade).containsExactly(7);
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(lessonRepo, times(1)).findById(3L);
+        assertThat(lesson.getSubject()).isEqualTo("Фізика");
+        assertThat(mark.getGrade()).isEqualTo(7);
+    }
+
+    @Test
+    void insideTransactionTheCallerGetsItsOwnLoad() {
+        Lesson lesson = Lesson.builder().id(4L).subject("Історія").date(LocalDate.now()).build();
+        when(lessonRepo.findById(4L)).thenReturn(Optional.of(lesson));
+        when(markRepo.findByLessonId(4L)).thenReturn(new ArrayList<>());
+
+        JournalServiceImpl service = service(Duration.ofSeconds(5));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // сутність з контексту транзакції, а не копія спільного завантаження
+            assertThat(service.getLessonById(4L)).containsSame(lesson);
+            assertThat(service.getLessonById(4L)).containsSame(lesson);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        verify(lessonRepo, times(2)).findById(4L);
+    }
+
+    @Test
+    void waiterTimesOutWhileLeaderIsStuck() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(lessonRepo.findById(2L)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+
+        JournalServiceImpl service = service(Duration.ofMillis(100));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<Lesson>> leader = pool.submit(() -> service.getLessonById(2L));
+            Thread.sleep(100);
+
+            assertThatThrownBy(() -> service.getLessonById(2L)).isInstanceOf(LoadTimeoutException.class);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEmpty();
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(lessonRepo, times(1)).findById(2L);
+    }
+
+    private JournalServiceImpl service(Duration timeout) {
+        return new JournalServiceImpl(lessonRepo, markRepo, null, null, archive, null, timeout);
+    }
+}
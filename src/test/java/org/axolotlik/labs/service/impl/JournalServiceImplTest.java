@@ -0,0 +1,62 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.model.Lesson;
+import org.axolotlik.labs.model.Mark;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.axolotlik.labs.repo.LessonRepository;
+import org.axolotlik.labs.repo.MarkRepository;
+import org.axolotlik.labs.service.StatsService;
+import org.axolotlik.labs.service.StudentService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JournalServiceImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private final LessonRepository lessonRepo = mock(LessonRepository.class);
+    private final MarkRepository markRepo = mock(MarkRepository.class);
+    private final StatsService stats = mock(StatsService.class);
+    private final JournalServiceImpl service = new JournalServiceImpl(lessonRepo, markRepo, mock(OutboxWriter.class),
+            stats, mock(ArchiveRepository.class), mock(StudentService.class), Duration.ofSeconds(5));
+
+    @Test
+    void movingAMarkToAnotherLessonMovesItsRollupDelta() {
+        when(lessonRepo.findById(1L)).thenReturn(Optional.of(lesson(1L, "Математика", MONDAY)));
+        when(lessonRepo.findById(2L)).thenReturn(Optional.of(lesson(2L, "Фізика", MONDAY.plusDays(1))));
+        when(markRepo.findById(10L)).thenReturn(Optional.of(mark(1L, 8)));
+
+        service.updateMark(2L, 10L, mark(null, 11));
+
+        verify(stats).applyMark(eq("Математика"), eq(MONDAY), argThat(m -> m.getGrade() == 8), eq(-1));
+        verify(stats).applyMark(eq("Фізика"), eq(MONDAY.plusDays(1)), argThat(m -> m.getGrade() == 11), eq(+1));
+        verifyNoMoreInteractions(stats);
+    }
+
+    @Test
+    void updatingAMarkInPlaceReplacesItsDeltaInTheSameLesson() {
+        when(lessonRepo.findById(1L)).thenReturn(Optional.of(lesson(1L, "Математика", MONDAY)));
+        when(markRepo.findById(10L)).thenReturn(Optional.of(mark(1L, 8)));
+
+        service.updateMark(1L, 10L, mark(null, 11));
+
+        verify(stats).applyMark(eq("Математика"), eq(MONDAY), argThat(m -> m.getGrade() == 8), eq(-1));
+        verify(stats).applyMark(eq("Математика"), eq(MONDAY), argThat(m -> m.getGrade() == 11), eq(+1));
+        verifyNoMoreInteractions(stats);
+    }
+
+    private static Lesson lesson(Long id, String subject, LocalDate date) {
+        return Lesson.builder().id(id).subject(subject).date(date).build();
+    }
+
+    private static Mark mark(Long lessonId, int grade) {
+        return Mark.builder().id(10L).schoolId(1L).lessonId(lessonId).studentName("Учень").grade(grade).present(true)
+                .build();
+    }
+}
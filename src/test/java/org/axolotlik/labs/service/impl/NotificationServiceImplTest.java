@@ -0,0 +1,138 @@
+package org.axolotlik.labs.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axolotlik.labs.config.NotificationProperties;
+import org.axolotlik.labs.config.NotificationProperties.OverflowPolicy;
+import org.axolotlik.labs.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Конвеєр сповіщень через файловий sink: дайджести за адресатом і політики переповнення черги.
+ */
+class NotificationServiceImplTest {
+
+    @TempDir Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FileNotificationSink sink;
+    private NotificationServiceImpl service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) service.stop();
+        if (sink != null) sink.close();
+    }
+
+    @Test
+    void oneRecipientGetsOneDigestPerWindowWhateverTheWorkerCount() throws Exception {
+        NotificationProperties props = props(4, 100, OverflowPolicy.DROP_OLDEST);
+        props.setLinger(Duration.ofMillis(300));
+        create(props).start();
+
+        for (int i = 1; i <= 5; i++) service.notify("anna", "Оцінка " + i);
+        service.notify("bohdan", "Оцінка 10");
+        service.stop();
+
+        String log = delivered();
+        assertThat(countOf(log, "[anna]")).isEqualTo(1);
+        assertThat(log).contains("[anna] 5 нових сповіщень:", " - Оцінка 1", " - Оцінка 5");
+        assertThat(log).contains("[bohdan] Оцінка 10");
+        assertThat(registry.counter("gradebook.notifications.delivered").count()).isEqualTo(6);
+    }
+
+    @Test
+    void dropNewestKeepsWhatIsAlreadyQueued() throws Exception {
+        create(props(1, 2, OverflowPolicy.DROP_NEWEST));
+
+        fillBeyondCapacity();
+        assertThat(registry.get("gradebook.notifications.queue.depth").gauge().value()).isEqualTo(2);
+        drain();
+
+        assertThat(delivered()).contains("2 нових сповіщень:", " - перша", " - друга").doesNotContain("третя");
+        assertThat(registry.counter("gradebook.notifications.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropOldestMakesRoomForTheNewest() throws Exception {
+        create(props(1, 2, OverflowPolicy.DROP_OLDEST));
+
+        fillBeyondCapacity();
+        drain();
+
+        assertThat(delivered()).contains("2 нових сповіщень:", " - друга", " - третя").doesNotContain("перша");
+        assertThat(registry.counter("gradebook.notifications.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void callerRunsDeliversTheOverflowOnTheCallingThread() throws Exception {
+        create(props(1, 2, OverflowPolicy.CALLER_RUNS));
+
+        fillBeyondCapacity();
+        // воркери ще не запущені — у файлі лише те, що доставив сам виклик notify
+        assertThat(delivered()).contains("[anna] третя").doesNotContain("перша");
+        drain();
+
+        assertThat(delivered()).contains(" - перша", " - друга");
+        assertThat(registry.counter("gradebook.notifications.dropped").count()).isZero();
+    }
+
+    @Test
+    void missingRecipientGoesToTheSystemRecipient() throws Exception {
+        create(props(2, 10, OverflowPolicy.DROP_OLDEST));
+
+        service.notify(null, "без адресата");
+        service.notify(" ", "порожній адресат");
+        drain();
+
+        assertThat(delivered()).contains("[" + NotificationService.SYSTEM_RECIPIENT + "] 2 нових сповіщень:",
+                " - без адресата", " - порожній адресат");
+    }
+
+    private NotificationServiceImpl create(NotificationProperties props) throws IOException {
+        sink = new FileNotificationSink(dir.resolve("notifications.log"));
+        service = new NotificationServiceImpl(props, List.of(sink), registry);
+        return service;
+    }
+
+    // воркери не запущені, тож третє повідомлення не вміщається в чергу на два
+    private void fillBeyondCapacity() {
+        service.notify("anna", "перша");
+        service.notify("anna", "друга");
+        service.notify("anna", "третя");
+    }
+
+    private void drain() throws InterruptedException {
+        service.start();
+        service.stop();
+    }
+
+    private String delivered() throws IOException {
+        return Files.readString(dir.resolve("notifications.log"), StandardCharsets.UTF_8);
+    }
+
+    private static NotificationProperties props(int workers, int capacity, OverflowPolicy policy) {
+        NotificationProperties props = new NotificationProperties();
+        props.setWorkers(workers);
+        props.setQueueCapacity(capacity);
+        props.setOverflowPolicy(policy);
+        props.setLinger(Duration.ZERO);
+        return props;
+    }
+
+    private static int countOf(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) count++;
+        return count;
+    }
+}
@@ -0,0 +1,229 @@
+package org.axolotlik.labs.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.axolotlik.labs.config.OutboxProperties;
+import org.axolotlik.labs.config.TenancyConfig;
+import org.axolotlik.labs.event.ChangeType;
+import org.axolotlik.labs.event.MarkChangedEvent;
+import org.axolotlik.labs.model.OutboxEvent;
+import org.axolotlik.labs.model.OutboxLease;
+import org.axolotlik.labs.repo.OutboxLeaseRepository;
+import org.axolotlik.labs.repo.OutboxRepository;
+import org.axolotlik.labs.tenant.Shards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Цикл relay на H2: порядок і курсор, оренда між подами, пропуски в id від незакомічених транзакцій, паркування.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TenancyConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired OutboxRepository repo;
+    @Autowired OutboxLeaseRepository leases;
+    @Autowired Shards shards;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired DataSource dataSource;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    // markId доставлених подій у порядку доставки
+    private final List<Long> received = new ArrayList<>();
+    private final List<Long> failing = new ArrayList<>();
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+    private OutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(txManager);
+        writer = new OutboxWriter(repo, mapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from outbox");
+        jdbc.update("update outbox_lease set holder = null, expires_at = null, last_event_id = null");
+    }
+
+    @Test
+    void relaysInIdOrderAndAdvancesTheCursor() {
+        long first = append(1L);
+        append(2L);
+        long last = append(3L);
+
+        relay(props()).relay();
+
+        assertThat(received).containsExactly(1L, 2L, 3L);
+        assertThat(jdbc.queryForObject("select count(*) from outbox where published_at is null", Long.class))
+                .isZero();
+        assertThat(cursor()).isEqualTo(last).isGreaterThan(first);
+    }
+
+    @Test
+    void onlyTheLeaseHolderRelays() {
+        OutboxRelay a = relay(props());
+        OutboxRelay b = relay(props());
+        append(1L);
+        a.relay();
+        append(2L);
+
+        b.relay();
+        assertThat(received).containsExactly(1L);
+
+        a.relay();
+        assertThat(received).containsExactly(1L, 2L);
+
+        // под A зник, не продовживши оренду — після її закінчення події підхоплює B
+        jdbc.update("update outbox_lease set expires_at = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        append(3L);
+        b.relay();
+        append(4L);
+        a.relay();
+
+        assertThat(received).containsExactly(1L, 2L, 3L);
+        assertThat(leases.findById(OutboxLease.RELAY).orElseThrow().getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void waitsForAnUncommittedLowerIdBeforeRelayingLaterEvents() throws Exception {
+        OutboxRelay relay = relay(props());
+        append(1L);
+        relay.relay();
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> tx.executeWithoutResult(s -> {
+            writer.append(event(2L));
+            inserted.countDown();
+            await(commit);
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+        append(3L);
+
+        relay.relay();
+        assertThat(received).as("подію 3 не можна доставити раніше за ще не закомічену 2").containsExactly(1L);
+
+        commit.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        relay.relay();
+        assertThat(received).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void aRolledBackGapIsSkippedAfterTheGapTimeout() {
+        OutboxRelay relay = relay(props());
+        append(1L);
+        relay.relay();
+
+        tx.executeWithoutResult(s -> {
+            writer.append(event(2L));
+            s.setRollbackOnly();
+        });
+        append(3L);
+
+        relay.relay();
+        assertThat(received).containsExactly(1L);
+
+        jdbc.update("update outbox set created_at = ? where published_at is null",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        relay.relay();
+        assertThat(received).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void parksAnEventThatKeepsFailingAndMovesOn() {
+        OutboxProperties props = props();
+        props.setMaxAttempts(3);
+        OutboxRelay relay = relay(props);
+        failing.add(2L);
+        append(1L);
+        long poison = append(2L);
+        append(3L);
+
+        relay.relay();
+        relay.relay();
+        assertThat(received).containsExactly(1L);
+        assertThat(repo.findById(poison).orElseThrow().getAttempts()).isEqualTo(2);
+
+        relay.relay();
+        OutboxEvent parked = repo.findById(poison).orElseThrow();
+        assertThat(parked.getAttempts()).isEqualTo(3);
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(parked.getPublishedAt()).isNull();
+        assertThat(parked.getLastError()).contains("підписник недоступний");
+
+        relay.relay();
+        assertThat(received).containsExactly(1L, 3L);
+    }
+
+    private OutboxRelay relay(OutboxProperties props) {
+        ApplicationEventPublisher publisher = event -> {
+            long markId = ((MarkChangedEvent) event).markId();
+            if (failing.contains(markId)) throw new IllegalStateException("підписник недоступний");
+            received.add(markId);
+        };
+        return new OutboxRelay(repo, leases, publisher, mapper, tx, props, shards);
+    }
+
+    private static OutboxProperties props() {
+        OutboxProperties props = new OutboxProperties();
+        props.setBatchSize(10);
+        props.setGapTimeout(Duration.ofSeconds(30));
+        return props;
+    }
+
+    private long append(long markId) {
+        tx.executeWithoutResult(s -> writer.append(event(markId)));
+        return jdbc.queryForObject("select max(id) from outbox", Long.class);
+    }
+
+    private Long cursor() {
+        return leases.findById(OutboxLease.RELAY).orElseThrow().getLastEventId();
+    }
+
+    private static MarkChangedEvent event(long markId) {
+        return new MarkChangedEvent(ChangeType.CREATED, markId, 1L, "Учень", 10, true);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
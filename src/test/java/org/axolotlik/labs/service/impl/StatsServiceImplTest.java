@@ -0,0 +1,170 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.config.TenancyConfig;
+import org.axolotlik.labs.model.DailyMarkTotals;
+import org.axolotlik.labs.model.Granularity;
+import org.axolotlik.labs.repo.ArchiveRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rollup-и на H2: інкрементні дельти, перерахунок з історії і перерахунок під паралельним записом.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, StatsServiceImpl.class, ArchiveRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatsServiceImplTest {
+
+    // середа: тиждень починається 03.03, місяць — 01.03
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 5);
+
+    @Autowired StatsServiceImpl stats;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(txManager);
+        jdbc.update("insert into student (id, school_id, name) values (1, 1, 'Учень')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("mark_archive", "lesson_archive", "mark", "student", "lesson", "mark_rollup")) {
+            jdbc.update("delete from " + table);
+        }
+    }
+
+    @Test
+    void deltasAccumulateIntoEveryGranularity() {
+        tx.executeWithoutResult(status -> stats.applyDaily(List.of(
+                new DailyMarkTotals(1L, "Математика", DAY, 3, 2, 20, 2),
+                new DailyMarkTotals(1L, "Математика", DAY.plusDays(1), 1, 1, 12, 1))));
+        tx.executeWithoutResult(status -> stats.applyDaily(List.of(
+                new DailyMarkTotals(1L, "Математика", DAY, -1, -1, -10, -1))));
+
+        assertThat(rollup(Granularity.DAY, DAY)).containsExactly(2L, 1L, 10L, 1L);
+        assertThat(rollup(Granularity.WEEK, LocalDate.of(2025, 3, 3))).containsExactly(3L, 2L, 22L, 2L);
+        assertThat(rollup(Granularity.MONTH, LocalDate.of(2025, 3, 1))).containsExactly(3L, 2L, 22L, 2L);
+    }
+
+    @Test
+    void rebuildRecomputesFromLiveAndArchivedMarksAndZeroesStaleRows() {
+        lesson(1, DAY);
+        mark(1, 10, true);
+        mark(1, null, false);
+        jdbc.update("""
+                insert into lesson_archive (id, school_id, subject, topic, lesson_date, archived_at)
+                values (2, 1, 'Математика', 'Архів', ?, current_timestamp)
+                """, Date.valueOf(DAY.minusDays(1)));
+        jdbc.update("""
+                insert into mark_archive (id, school_id, lesson_id, student_name, grade, present, updated_at)
+                values (100, 1, 2, 'Учень', 8, true, current_timestamp)
+                """);
+        // зіпсовані лічильники і рядок, під яким відміток уже немає
+        setRollup(Granularity.DAY, DAY, 99);
+        setRollup(Granularity.DAY, LocalDate.of(2025, 1, 10), 5);
+
+        stats.rebuild();
+
+        assertThat(rollup(Granularity.DAY, DAY)).containsExactly(2L, 1L, 10L, 1L);
+        assertThat(rollup(Granularity.DAY, DAY.minusDays(1))).containsExactly(1L, 1L, 8L, 1L);
+        assertThat(rollup(Granularity.WEEK, LocalDate.of(2025, 3, 3))).containsExactly(3L, 2L, 18L, 2L);
+        assertThat(rollup(Granularity.DAY, LocalDate.of(2025, 1, 10))).containsExactly(0L, 0L, 0L, 0L);
+        assertThat(stats.timeSeries("Математика", Granularity.DAY, LocalDate.of(2025, 1, 1), DAY))
+                .extracting(p -> p.periodStart()).containsExactly(DAY.minusDays(1), DAY);
+    }
+
+    @Test
+    void rebuildKeepsADeltaCommittedWhileItRuns() throws Exception {
+        lesson(1, DAY);
+        mark(1, 10, true);
+        stats.rebuild();
+
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        var writer = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            mark(1, 6, true);
+            stats.applyDaily(List.of(new DailyMarkTotals(1L, "Математика", DAY, 1, 1, 6, 1)));
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var rebuild = CompletableFuture.runAsync(stats::rebuild);
+        Thread.sleep(300); // перерахунок чекає на замок rollup-ів предмета
+        assertThat(rebuild).isNotDone();
+        commit.countDown();
+
+        writer.get(5, TimeUnit.SECONDS);
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertThat(rollup(Granularity.DAY, DAY)).containsExactly(2L, 2L, 16L, 2L);
+    }
+
+    private void lesson(long id, LocalDate date) {
+        jdbc.update("insert into lesson (id, school_id, subject, topic, lesson_date) values (?, 1, 'Математика', 'Тема', ?)",
+                id, Date.valueOf(date));
+    }
+
+    private void mark(long lessonId, Integer grade, boolean present) {
+        jdbc.update("""
+                insert into mark (school_id, lesson_id, student_id, student_name, grade, present, updated_at)
+                values (1, ?, 1, 'Учень', ?, ?, current_timestamp)
+                """, lessonId, grade, present);
+    }
+
+    private void setRollup(Granularity g, LocalDate periodStart, long marks) {
+        jdbc.update("""
+                insert into mark_rollup (school_id, subject, granularity, period_start,
+                                         marks_count, present_count, grade_sum, graded_count)
+                values (1, 'Математика', ?, ?, ?, 0, 0, 0)
+                """, g.name(), Date.valueOf(periodStart), marks);
+    }
+
+    private List<Long> rollup(Granularity g, LocalDate periodStart) {
+        return jdbc.queryForObject("""
+                select marks_count, present_count, grade_sum, graded_count from mark_rollup
+                where school_id = 1 and subject = 'Математика' and granularity = ? and period_start = ?
+                """, (rs, i) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)),
+                g.name(), Date.valueOf(periodStart));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
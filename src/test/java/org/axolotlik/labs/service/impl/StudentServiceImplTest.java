@@ -0,0 +1,84 @@
+package org.axolotlik.labs.service.impl;
+
+import org.axolotlik.labs.config.TenancyConfig;
+import org.axolotlik.labs.repo.StudentRepository;
+import org.axolotlik.labs.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * find-or-create учня на справжній БД. Транзакції керуються вручну: тест відтворює конкурентний запит,
+ * що комітить того самого учня, поки транзакція addMark уже тримає знімок (REPEATABLE READ, як у MySQL).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:students;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TenancyConfig.class, StudentServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentServiceImplTest {
+
+    @Autowired StudentServiceImpl service;
+    @Autowired StudentRepository students;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired DataSource dataSource;
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate repeatableRead;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(dataSource);
+        repeatableRead = new TransactionTemplate(txManager);
+        repeatableRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        TenantContext.set(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        jdbc.update("delete from student");
+    }
+
+    @Test
+    void createsTheStudentOnceAndReusesIt() {
+        Long created = repeatableRead.execute(status -> service.resolveId("Петренко Оксана"));
+        Long again = repeatableRead.execute(status -> service.resolveId("Петренко Оксана"));
+
+        assertThat(again).isEqualTo(created);
+        assertThat(jdbc.queryForObject("select count(*) from student", Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    void seesAStudentCommittedAfterTheTransactionTookItsSnapshot() {
+        Long resolved = repeatableRead.execute(status -> {
+            assertThat(students.findIdByName("Коваль Андрій")).isEmpty(); // знімок уже взято
+            CompletableFuture.runAsync(() ->
+                    jdbc.update("insert into student (school_id, name) values (1, 'Коваль Андрій')")).join();
+            return service.resolveId("Коваль Андрій");
+        });
+
+        Long committed = jdbc.queryForObject("select id from student where name = 'Коваль Андрій'", Long.class);
+        assertThat(resolved).isEqualTo(committed);
+    }
+}
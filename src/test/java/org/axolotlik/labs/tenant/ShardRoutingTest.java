@@ -0,0 +1,135 @@
+package org.axolotlik.labs.tenant;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.axolotlik.labs.config.ShardedLiquibase;
+import org.axolotlik.labs.web.TenantFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Два вбудовані H2 (режим MySQL) як шарди: міграції, маршрутизація за школою і паралельний обхід шардів.
+ */
+class ShardRoutingTest {
+
+    private static final String CHANGELOG = "classpath:/db/changelog/db.changelog-master.yaml";
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private Shards shards;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (String name : List.of("north", "south")) {
+            dataSources.put(name, new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        }
+        shards = new Shards("north", List.of("north", "south"), Map.of(1L, "north", 2L, "south"));
+        jdbc = new JdbcTemplate(new ShardRoutingDataSource(shards, dataSources));
+
+        ShardedLiquibase liquibase = new ShardedLiquibase(dataSources, () -> {
+            SpringLiquibase shard = new SpringLiquibase();
+            shard.setChangeLog(CHANGELOG);
+            return shard;
+        });
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void migrationsAreAppliedToEveryShard() {
+        Long north = changeSets("north");
+        assertThat(north).isPositive();
+        assertThat(changeSets("south")).isEqualTo(north);
+        for (DataSource ds : dataSources.values()) {
+            assertThat(new JdbcTemplate(ds).queryForObject("select count(*) from lesson where school_id = 1", Long.class))
+                    .isZero();
+        }
+    }
+
+    @Test
+    void writesAreRoutedToTheShardOfTheSchool() {
+        TenantContext.runAs(1L, null, () -> insertLesson(1L, "Математика"));
+        TenantContext.runAs(2L, null, () -> insertLesson(2L, "Фізика"));
+        TenantContext.runAs(3L, null, () -> insertLesson(3L, "Історія")); // школи немає в мапі — шард за замовчуванням
+
+        assertThat(subjects("north")).containsExactlyInAnyOrder("Математика", "Історія");
+        assertThat(subjects("south")).containsExactly("Фізика");
+    }
+
+    @Test
+    void fanOutQueriesEveryShardFromTheRoot() {
+        TenantContext.runAs(1L, null, () -> insertLesson(1L, "Математика"));
+        TenantContext.runAs(2L, null, () -> insertLesson(2L, "Фізика"));
+        TenantContext.runAs(2L, null, () -> insertLesson(2L, "Хімія"));
+
+        TenantContext.set(1L); // школа запиту не обмежує адмінський обхід
+        Map<String, Long> counts = shards.fanOut(shard -> {
+            assertThat(TenantContext.school()).isNull();
+            return jdbc.queryForObject("select count(*) from lesson", Long.class);
+        });
+
+        assertThat(counts).containsExactly(Map.entry("north", 1L), Map.entry("south", 2L));
+        assertThat(TenantContext.school()).isEqualTo(1L);
+    }
+
+    @Test
+    void fanOutFailsWithTheErrorOfTheFailedShard() {
+        assertThatThrownBy(() -> shards.fanOut(shard -> {
+            if (shard.equals("south")) throw new IllegalStateException("south недоступний");
+            return jdbc.queryForObject("select count(*) from lesson", Long.class);
+        })).isInstanceOf(IllegalStateException.class).hasMessage("south недоступний");
+    }
+
+    @Test
+    void headerCannotSelectTheRootTenant() throws Exception {
+        TenantFilter filter = new TenantFilter("X-School-Id", 1L);
+        for (String header : List.of("0", "-1", "abc")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lessons");
+            request.addHeader("X-School-Id", header);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            filter.doFilter(request, response, chain);
+
+            assertThat(response.getStatus()).as(header).isEqualTo(400);
+            assertThat(chain.getRequest()).as(header).isNull();
+        }
+        assertThatThrownBy(() -> TenantContext.set(0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void insertLesson(Long school, String subject) {
+        jdbc.update("insert into lesson (school_id, subject, lesson_date) values (?, ?, ?)",
+                school, subject, Date.valueOf(LocalDate.now()));
+    }
+
+    private List<String> subjects(String shard) {
+        return new JdbcTemplate(dataSources.get(shard)).queryForList("select subject from lesson", String.class);
+    }
+
+    private Long changeSets(String shard) {
+        return new JdbcTemplate(dataSources.get(shard)).queryForObject("select count(*) from databasechangelog", Long.class);
+    }
+}
@@ -0,0 +1,103 @@
+package org.axolotlik.labs.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    void rejectsImmediatelyWhenSaturatedAndMaxWaitIsZero() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, null);
+
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isTrue();
+        assertThat(limiter.tryAcquire(Duration.ZERO)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void timedWaitGivesUpAfterMaxWait() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, null);
+        limiter.tryAcquire(Duration.ZERO);
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(Duration.ofMillis(50))).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void virtualThreadWaiterGetsThePermitOnRelease() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, null);
+        limiter.tryAcquire(Duration.ZERO);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return limiter.tryAcquire(Duration.ofSeconds(5));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            Thread.sleep(100);
+            assertThat(waiter).isNotDone();
+
+            limiter.release(FAST);
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void slowCompletionShrinksLimitByTenPercentDownToMin() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(20, 17, 40, TARGET);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(17); // 16 обмежено minLimit
+    }
+
+    @Test
+    void fastCompletionGrowsLimitOnlyWhenItWasSaturated() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, TARGET);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(FAST);
+        assertThat(limiter.getLimit()).isEqualTo(3); // maxLimit
+    }
+
+    @Test
+    void limitIsFixedWithoutLatencyTarget() throws Exception {
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 4, null);
+
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.tryAcquire(Duration.ZERO);
+        limiter.release(SLOW);
+        limiter.release(FAST);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+}
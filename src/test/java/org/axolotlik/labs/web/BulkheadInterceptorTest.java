@@ -0,0 +1,60 @@
+package org.axolotlik.labs.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axolotlik.labs.config.BulkheadProperties;
+import org.axolotlik.labs.controller.MarksLookupRestController;
+import org.axolotlik.labs.dto.mark.MarksLookupRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsOverTheLimitWithRetryAfterAndAdmitsAgainAfterRelease() throws Exception {
+        var props = new BulkheadProperties();
+        props.getHeavy().setInitialLimit(1);
+        props.getHeavy().setMaxLimit(1);
+        props.getHeavy().setRetryAfter(Duration.ofSeconds(5));
+        var interceptor = new BulkheadInterceptor(props, registry);
+        var handler = new HandlerMethod(new Heavy(), "run");
+
+        var first = new MockHttpServletRequest("GET", "/heavy");
+        assertThat(interceptor.preHandle(first, new MockHttpServletResponse(), handler)).isTrue();
+
+        var rejected = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/heavy"), rejected, handler)).isFalse();
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("5");
+        assertThat(registry.get("gradebook.bulkhead.rejected").tag("group", "heavy").counter().count()).isEqualTo(1);
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest("GET", "/heavy"),
+                new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void postLookupIsCountedAsRead() throws Exception {
+        var interceptor = new BulkheadInterceptor(new BulkheadProperties(), registry);
+        var handler = new HandlerMethod(new MarksLookupRestController(null), "lookup", MarksLookupRequest.class);
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/marks:lookup"),
+                new MockHttpServletResponse(), handler);
+
+        assertThat(registry.get("gradebook.bulkhead.inflight").tag("group", "read").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("gradebook.bulkhead.inflight").tag("group", "write").gauge().value()).isZero();
+    }
+
+    static class Heavy {
+        @Bulkhead(EndpointGroup.HEAVY)
+        public void run() {
+        }
+    }
+}